@@ -0,0 +1,94 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.JdbcPaymentsRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserts per second from concurrent writers, which the JDBC repository groups into multi-row
+ * statements, and the latency distribution of a GET by id; read p99 from the {@code get}
+ * percentiles. The JDBC repository runs against in-memory H2 through its own pool.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class JdbcPaymentsRepositoryBenchmark {
+
+  private static final int PAYMENTS = 100_000;
+
+  @Param({"in-memory", "jdbc"})
+  public String type;
+
+  private PaymentsRepository repository;
+  private UUID[] ids;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    repository = switch (type) {
+      case "in-memory" -> new InMemoryPaymentsRepository();
+      case "jdbc" -> new JdbcPaymentsRepository(
+          "jdbc:h2:mem:payments-benchmark;DB_CLOSE_DELAY=-1", "sa", "", 16, 256);
+      default -> throw new IllegalArgumentException("Unknown repository type " + type);
+    };
+
+    ids = new UUID[PAYMENTS];
+    Payment[] payments = new Payment[PAYMENTS];
+    for (int i = 0; i < PAYMENTS; i++) {
+      ids[i] = UUID.randomUUID();
+      payments[i] = createPayment(ids[i]);
+    }
+    repository.addAll(List.of(payments));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    if (repository instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Threads(16)
+  public Payment insert() {
+    Payment payment = createPayment(UUID.randomUUID());
+    repository.add(payment);
+    return payment;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(4)
+  public Optional<Payment> get() {
+    return repository.get(ids[ThreadLocalRandom.current().nextInt(PAYMENTS)]);
+  }
+
+  private static Payment createPayment(UUID id) {
+    Payment payment = Payment.restore(id, PaymentStatus.AUTHORIZED, "4242", 12, 2099, "USD",
+        1500);
+    payment.processBankResponse(true, UUID.randomUUID().toString());
+    return payment;
+  }
+}
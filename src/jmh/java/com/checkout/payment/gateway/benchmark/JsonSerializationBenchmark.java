@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class JsonSerializationBenchmark {
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private final ObjectReader requestReader = objectMapper.readerFor(PostPaymentRequest.class);
+  private final ObjectWriter responseWriter = objectMapper.writerFor(GetPaymentResponse.class);
+  private final byte[] requestJson = """
+      {
+        "cardNumber": "4242424242424242",
+        "expiryMonth": 12,
+        "expiryYear": 2099,
+        "currency": "USD",
+        "amount": 1500,
+        "cvv": "123"
+      }
+      """.getBytes(StandardCharsets.UTF_8);
+  private final GetPaymentResponse response = new GetPaymentResponse(UUID.randomUUID(),
+      PaymentStatus.AUTHORIZED, "4242", 12, 2099, "USD", 1500, Instant.now(), UUID.randomUUID());
+  private final PaymentResponseCache responseCache =
+      new PaymentResponseCache(objectMapper, new InMemoryPaymentsRepository(), 1);
+
+  @Benchmark
+  public PostPaymentRequest readPostPaymentRequest() throws IOException {
+    return requestReader.readValue(requestJson);
+  }
+
+  @Benchmark
+  public byte[] writeGetPaymentResponse() throws IOException {
+    return responseWriter.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] cachedGetPaymentResponse() {
+    return responseCache.get(response.id(), id -> Optional.of(response)).orElseThrow().body();
+  }
+}
@@ -0,0 +1,37 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PaymentBenchmark {
+
+  private final UUID id = UUID.randomUUID();
+  private final String cardNumber = "4242424242424242";
+  private final Payment payment = Payment.restore(id, PaymentStatus.AUTHORIZED, "4242", 12, 2099,
+      "USD", 1500);
+
+  @Benchmark
+  public Payment construct() {
+    return new Payment(id, PaymentStatus.AUTHORIZED, cardNumber, 12, 2099, "USD", 1500);
+  }
+
+  @Benchmark
+  public boolean isExpired() {
+    return payment.isExpired();
+  }
+}
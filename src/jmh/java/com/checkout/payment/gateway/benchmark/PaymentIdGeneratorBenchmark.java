@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Payment ids generated per microsecond by 32 threads at once: {@link UUID#randomUUID()}, which
+ * shares one {@code SecureRandom}, against {@link PaymentIdGenerator}, which uses a per-thread
+ * random and the clock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(32)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PaymentIdGeneratorBenchmark {
+
+  private final PaymentIdGenerator generator = PaymentIdGenerator.system();
+
+  @Benchmark
+  public UUID randomUuid() {
+    return UUID.randomUUID();
+  }
+
+  @Benchmark
+  public UUID timeOrderedUuid() {
+    return generator.next();
+  }
+}
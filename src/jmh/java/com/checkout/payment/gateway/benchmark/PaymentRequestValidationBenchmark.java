@@ -0,0 +1,98 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.CurrentMonth;
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validates a well-formed payment request with Hibernate Validator and the previous constraint
+ * annotations followed by a {@link YearMonth#now()} expiry check, against
+ * {@link PaymentRequestValidator}. Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PaymentRequestValidationBenchmark {
+
+  private ValidatorFactory validatorFactory;
+  private Validator beanValidator;
+  private PaymentRequestValidator paymentRequestValidator;
+  private AnnotatedRequest annotatedRequest;
+  private PostPaymentRequest request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    beanValidator = validatorFactory.getValidator();
+    paymentRequestValidator = new PaymentRequestValidator(true, 1, CurrentMonth.system());
+    annotatedRequest = new AnnotatedRequest("4242424242424242", 12, 2099, "USD", 1500, "123");
+    request = new PostPaymentRequest("4242424242424242", 12, 2099, "USD", 1500, "123");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Benchmark
+  public boolean beanValidation() {
+    Set<ConstraintViolation<AnnotatedRequest>> violations =
+        beanValidator.validate(annotatedRequest);
+    YearMonth expiry = YearMonth.of(annotatedRequest.expiryYear(), annotatedRequest.expiryMonth());
+    return violations.isEmpty() && expiry.isAfter(YearMonth.now());
+  }
+
+  @Benchmark
+  public PostPaymentRequest handWritten() {
+    paymentRequestValidator.validate(request);
+    return request;
+  }
+
+  public record AnnotatedRequest(
+      @NotNull(message = "Card number is required")
+      @Pattern(regexp = "^\\d{14,19}$",
+          message = "Card number must be 14-19 digits long and contain only numeric characters")
+      String cardNumber,
+      @NotNull(message = "Expiry month is required")
+      @Min(value = 1, message = "Expiry month must be between 1 and 12")
+      @Max(value = 12, message = "Expiry month must be between 1 and 12")
+      Integer expiryMonth,
+      @NotNull(message = "Expiry year is required")
+      Integer expiryYear,
+      @NotBlank(message = "Currency is required")
+      @Pattern(regexp = "^(USD|EUR|GBP)$", message = "Currency must be one of: USD, EUR, GBP")
+      String currency,
+      @NotNull(message = "Amount is required")
+      @Min(value = 1, message = "Amount must be a positive integer")
+      Integer amount,
+      @NotNull(message = "CVV is required")
+      @Pattern(regexp = "^\\d{3,4}$",
+          message = "CVV must be 3-4 digits long and contain only numeric characters")
+      String cvv
+  ) {}
+}
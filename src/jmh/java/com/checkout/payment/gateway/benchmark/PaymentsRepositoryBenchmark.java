@@ -0,0 +1,107 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.JournalPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.OffHeapPaymentsRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One writer and three readers sharing a repository preloaded with {@link #PAYMENTS} payments.
+ * The writer overwrites existing ids so the repository size stays constant across iterations.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PaymentsRepositoryBenchmark {
+
+  private static final int PAYMENTS = 100_000;
+
+  @Param({"in-memory", "bounded", "off-heap", "journal"})
+  public String type;
+
+  private PaymentsRepository repository;
+  private Payment[] payments;
+  private UUID[] ids;
+  private Path journalDirectory;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    repository = switch (type) {
+      case "in-memory" -> new InMemoryPaymentsRepository();
+      case "bounded" -> new BoundedInMemoryPaymentsRepository(PAYMENTS * 2, Duration.ofHours(1));
+      case "off-heap" -> new OffHeapPaymentsRepository(PAYMENTS * 2);
+      case "journal" -> {
+        journalDirectory = Files.createTempDirectory("payments-journal-benchmark");
+        yield new JournalPaymentsRepository(journalDirectory, PAYMENTS * 4,
+            JournalPaymentsRepository.Durability.ASYNC, Duration.ZERO, 0.5);
+      }
+      default -> throw new IllegalArgumentException("Unknown repository type " + type);
+    };
+
+    payments = new Payment[PAYMENTS];
+    ids = new UUID[PAYMENTS];
+    for (int i = 0; i < PAYMENTS; i++) {
+      ids[i] = UUID.randomUUID();
+      payments[i] = Payment.restore(ids[i], PaymentStatus.AUTHORIZED, "4242", 12, 2099, "USD",
+          i + 1);
+      repository.add(payments[i]);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    if (repository instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+    if (journalDirectory != null) {
+      try (Stream<Path> files = Files.walk(journalDirectory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public Payment add() {
+    Payment payment = payments[ThreadLocalRandom.current().nextInt(PAYMENTS)];
+    repository.add(payment);
+    return payment;
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(3)
+  public Optional<Payment> get() {
+    return repository.get(ids[ThreadLocalRandom.current().nextInt(PAYMENTS)]);
+  }
+}
@@ -0,0 +1,79 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.dto.PostPaymentResponse;
+import com.checkout.payment.gateway.infrastructure.external.BankCallGuard;
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker;
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import com.checkout.payment.gateway.infrastructure.external.BankSimulator;
+import com.checkout.payment.gateway.infrastructure.external.HttpAsyncBankClient;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.checkout.payment.gateway.service.IdempotencyCache;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs {@link PaymentGatewayService#processPaymentAsync} end to end against a {@link BankSimulator}
+ * with no added latency on loopback, so the score covers mapping, the bank round trip, JSON on both
+ * sides and the repository write. Sample time mode reports latency percentiles; add
+ * {@code -prof gc} (the Gradle task does by default) for allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Threads(8)
+public class ProcessPaymentBenchmark {
+
+  private BankSimulator bank;
+  private PaymentGatewayService service;
+  private PostPaymentRequest request;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    bank = new BankSimulator(new ObjectMapper(),
+        new BankSimulator.Settings(0, Duration.ZERO, Duration.ZERO, 0, 0, 0));
+    String url = bank.url();
+    PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+    BankCallGuard callGuard = new BankCallGuard(
+        new BankCircuitBreaker(0.5, 0.5, Duration.ofSeconds(2), 100, 20, Duration.ofSeconds(10),
+            5, System::nanoTime),
+        new BankConcurrencyLimiter(64, Duration.ofSeconds(5)), metrics);
+    service = new PaymentGatewayService(
+        new InMemoryPaymentsRepository(),
+        new HttpAsyncBankClient(HttpClient.newHttpClient(), new ObjectMapper(), url,
+            Duration.ofSeconds(5), callGuard, metrics, 1, Duration.ZERO, Duration.ofSeconds(5),
+            false, Duration.ZERO),
+        new IdempotencyCache(10_000, Duration.ofMinutes(1)), metrics);
+    request = new PostPaymentRequest("4242424242424241", 12, 2099, "USD", 1500, "123");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    bank.close();
+  }
+
+  @Benchmark
+  public PostPaymentResponse processPaymentAsync() {
+    return service.processPaymentAsync(request).join();
+  }
+}
@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.domain.CurrentMonth;
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.ExpiredCardException;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.checkout.payment.gateway.service.IdempotencyCache;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the not-found and expired-card paths. {@code callDepth} pads the stack to roughly what
+ * the servlet and Spring frames add in a real request, since that is what a filled-in stack trace
+ * pays for. The {@code legacy} benchmarks throw exceptions that capture a stack trace, as these
+ * paths did before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class RejectionPathBenchmark {
+
+  @Param({"10", "150"})
+  public int callDepth;
+
+  private PaymentGatewayService service;
+  private PaymentRequestValidator validator;
+  private PostPaymentRequest expiredRequest;
+  private UUID missingId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+    service = new PaymentGatewayService(new InMemoryPaymentsRepository(), null,
+        new IdempotencyCache(1024, Duration.ofHours(1)), metrics);
+    validator = new PaymentRequestValidator(false, 1, CurrentMonth.system());
+    expiredRequest = new PostPaymentRequest("4242424242424242", 1, 2000, "USD", 1500, "123");
+    missingId = UUID.randomUUID();
+  }
+
+  @Benchmark
+  public Object notFoundLegacy() {
+    return atDepth(callDepth, () -> {
+      try {
+        return service.findPaymentById(missingId)
+            .orElseThrow(() -> new LegacyPaymentNotFoundException("Invalid ID"));
+      } catch (LegacyPaymentNotFoundException e) {
+        return new RuntimeException(e.getMessage());
+      }
+    });
+  }
+
+  @Benchmark
+  public Object notFound() {
+    return atDepth(callDepth, () -> service.findPaymentById(missingId));
+  }
+
+  @Benchmark
+  public Object expiredCardLegacy() {
+    return atDepth(callDepth, () -> {
+      try {
+        validator.validate(expiredRequest);
+        return null;
+      } catch (ExpiredCardException e) {
+        return new RuntimeException(e.getMessage());
+      }
+    });
+  }
+
+  @Benchmark
+  public Object expiredCard() {
+    return atDepth(callDepth, () -> {
+      try {
+        validator.validate(expiredRequest);
+        return null;
+      } catch (ExpiredCardException e) {
+        return e;
+      }
+    });
+  }
+
+  private static Object atDepth(int depth, Rejection rejection) {
+    return depth == 0 ? rejection.run() : atDepth(depth - 1, rejection);
+  }
+
+  @FunctionalInterface
+  private interface Rejection {
+
+    Object run();
+  }
+
+  /** What the not-found path used to throw: an exception with a filled-in stack trace. */
+  private static final class LegacyPaymentNotFoundException extends RuntimeException {
+
+    LegacyPaymentNotFoundException(String message) {
+      super(message);
+    }
+  }
+}
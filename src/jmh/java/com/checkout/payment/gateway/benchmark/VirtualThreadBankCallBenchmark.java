@@ -0,0 +1,87 @@
+package com.checkout.payment.gateway.benchmark;
+
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares request throughput of a Tomcat-sized platform thread pool against a virtual thread per
+ * request when every request blocks on a bank call of fixed latency. The score is completed
+ * payment requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class VirtualThreadBankCallBenchmark {
+
+  private static final int REQUESTS = 2_000;
+
+  @Param({"50", "200", "1000"})
+  public int bankLatencyMillis;
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param({"200"})
+  public int platformPoolSize;
+
+  private ExecutorService executor;
+  private BankConcurrencyLimiter limiter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    executor = threads.equals("virtual")
+        ? Executors.newVirtualThreadPerTaskExecutor()
+        : Executors.newFixedThreadPool(platformPoolSize);
+    limiter = new BankConcurrencyLimiter(REQUESTS, Duration.ofSeconds(30));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REQUESTS)
+  public int handleRequests() throws Exception {
+    List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+    for (int i = 0; i < REQUESTS; i++) {
+      responses.add(executor.submit(this::callBank));
+    }
+    int completed = 0;
+    for (Future<Integer> response : responses) {
+      completed += response.get();
+    }
+    return completed;
+  }
+
+  private int callBank() throws InterruptedException {
+    limiter.acquire();
+    try {
+      Thread.sleep(bankLatencyMillis);
+      return 1;
+    } finally {
+      limiter.release();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lives in the client's package because the request mapping helpers are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class BankRequestBenchmark {
+
+  private final PostPaymentRequest request =
+      new PostPaymentRequest("4242424242424242", 4, 2031, "USD", 1500, "123");
+
+  @Benchmark
+  public BankPaymentRequest createBankRequest() {
+    return BankHttp.createBankRequest(request);
+  }
+
+  @Benchmark
+  public String formatExpiryDate() {
+    return BankHttp.formatExpiryDate(request.expiryMonth(), request.expiryYear());
+  }
+}
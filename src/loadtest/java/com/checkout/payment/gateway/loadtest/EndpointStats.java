@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latencies and outcome counts for one endpoint. */
+final class EndpointStats {
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+  private final String name;
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+  EndpointStats(String name) {
+    this.name = name;
+  }
+
+  /** Records a request; {@code outcome} is the status code, or the failure when there was none. */
+  void record(String outcome, long latencyNanos) {
+    latencies.recordNanos(latencyNanos);
+    outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+  }
+
+  void print(PrintStream out, Duration elapsed) {
+    long count = latencies.count();
+    out.printf("%-22s %8d requests %10.1f req/s%n", name, count,
+        count * 1000.0 / Math.max(1, elapsed.toMillis()));
+    if (count == 0) {
+      return;
+    }
+    StringBuilder percentiles = new StringBuilder("  latency ms");
+    for (double percentile : PERCENTILES) {
+      percentiles.append(String.format("  %s=%.2f",
+          percentile == 100 ? "max" : "p" + trim(percentile),
+          latencies.percentileMicros(percentile) / 1000.0));
+    }
+    out.println(percentiles);
+    StringBuilder breakdown = new StringBuilder("  outcomes  ");
+    new TreeMap<>(outcomes).forEach((outcome, adder) -> breakdown.append(
+        String.format("  %s=%d (%.2f%%)", outcome, adder.sum(), adder.sum() * 100.0 / count)));
+    out.println(breakdown);
+  }
+
+  private static String trim(double percentile) {
+    return percentile == Math.rint(percentile)
+        ? String.valueOf((long) percentile) : String.valueOf(percentile);
+  }
+}
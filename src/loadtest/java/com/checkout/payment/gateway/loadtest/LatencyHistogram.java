@@ -0,0 +1,62 @@
+package com.checkout.payment.gateway.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in microseconds. Buckets are exact below 64us and then split each
+ * power of two into 32 steps, so any reported percentile is within about 3% of the true value.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 2) * HALF_SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  void recordNanos(long nanos) {
+    counts.incrementAndGet(indexOf(Math.max(0, nanos / 1000)));
+  }
+
+  long count() {
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /** Upper bound of the bucket holding the given percentile, or 0 when nothing was recorded. */
+  long percentileMicros(double percentile) {
+    long total = count();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(BUCKETS - 1);
+  }
+
+  static int indexOf(long micros) {
+    int shift = Long.SIZE - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+    if (shift <= 0) {
+      return (int) micros;
+    }
+    return shift * HALF_SUB_BUCKETS + (int) (micros >>> shift);
+  }
+
+  static long upperBoundOf(int index) {
+    if (index < 2 * HALF_SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / HALF_SUB_BUCKETS - 1;
+    long mantissa = index - (long) shift * HALF_SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,167 @@
+package com.checkout.payment.gateway.loadtest;
+
+import com.checkout.payment.gateway.PaymentGatewayApplication;
+import com.checkout.payment.gateway.infrastructure.external.BankSimulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Year;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Open-model load generator: requests are started at a fixed rate whatever the gateway's response
+ * times, and latency is measured from each request's scheduled start, so a stalled gateway shows up
+ * as queueing delay rather than as a quietly lower request rate. A {@code getRatio} share of
+ * requests poll a recently created payment; the rest create one, either generated or replayed in
+ * order from an NDJSON file of {@code POST /payments} bodies.
+ */
+public final class LoadTest {
+
+  private static final String[] CURRENCIES = {"USD", "EUR", "GBP"};
+  private static final int RECENT_IDS = 4096;
+
+  private final LoadTestOptions options;
+  private final URI target;
+  private final HttpClient client;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<String> replayed;
+  private final AtomicLong replayPosition = new AtomicLong();
+  private final AtomicReferenceArray<String> recentIds = new AtomicReferenceArray<>(RECENT_IDS);
+  private final AtomicLong createdCount = new AtomicLong();
+  private final EndpointStats posts = new EndpointStats("POST /payments");
+  private final EndpointStats gets = new EndpointStats("GET /payments/{id}");
+
+  LoadTest(LoadTestOptions options, URI target) throws IOException {
+    this.options = options;
+    this.target = target;
+    this.client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    this.replayed = options.requests() == null ? List.of()
+        : Files.readAllLines(options.requests()).stream().filter(line -> !line.isBlank()).toList();
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    if (options.target() != null) {
+      new LoadTest(options, options.target()).run(System.out);
+      return;
+    }
+
+    try (BankSimulator bank = new BankSimulator(new ObjectMapper(), new BankSimulator.Settings(0,
+        options.bankLatencyMedian(), options.bankLatencyP99(), options.bankErrorRate(), 0, 0));
+        ConfigurableApplicationContext gateway = SpringApplication.run(
+            PaymentGatewayApplication.class, "--server.port=0", "--bank.api.url=" + bank.url(),
+            "--logging.level.root=WARN")) {
+      URI target = URI.create(
+          "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port"));
+      new LoadTest(options, target).run(System.out);
+    }
+  }
+
+  void run(PrintStream out) {
+    out.printf("Driving %s at %d req/s for %s after a %s warmup%n", target, options.rate(),
+        options.duration(), options.warmup());
+    long interval = 1_000_000_000L / options.rate();
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+
+    try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long i = 0; ; i++) {
+        long scheduled = start + i * interval;
+        if (scheduled >= end) {
+          break;
+        }
+        long wait;
+        while ((wait = scheduled - System.nanoTime()) > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        boolean measured = scheduled >= measureFrom;
+        requests.execute(() -> send(scheduled, measured));
+      }
+    }
+
+    out.println();
+    posts.print(out, options.duration());
+    gets.print(out, options.duration());
+  }
+
+  private void send(long scheduledNanos, boolean measured) {
+    String paymentId = ThreadLocalRandom.current().nextDouble() < options.getRatio()
+        ? recentId() : null;
+    EndpointStats stats = paymentId == null ? posts : gets;
+    HttpRequest.Builder request = paymentId == null
+        ? HttpRequest.newBuilder(target.resolve("/payments"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(nextPaymentRequest()))
+        : HttpRequest.newBuilder(target.resolve("/payments/" + paymentId)).GET();
+
+    String outcome;
+    try {
+      HttpResponse<String> response = client.send(request.timeout(options.requestTimeout()).build(),
+          HttpResponse.BodyHandlers.ofString());
+      outcome = String.valueOf(response.statusCode());
+      if (paymentId == null && response.statusCode() == 201) {
+        remember(objectMapper.readTree(response.body()).path("id").asText());
+      }
+    } catch (HttpTimeoutException e) {
+      outcome = "timeout";
+    } catch (IOException e) {
+      outcome = e.getClass().getSimpleName();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    if (measured) {
+      stats.record(outcome, System.nanoTime() - scheduledNanos);
+    }
+  }
+
+  private String nextPaymentRequest() {
+    if (!replayed.isEmpty()) {
+      return replayed.get((int) (replayPosition.getAndIncrement() % replayed.size()));
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    StringBuilder cardNumber = new StringBuilder("4");
+    for (int i = 0; i < 14; i++) {
+      cardNumber.append(random.nextInt(10));
+    }
+    // The bank authorizes odd and declines even last digits; zero would always be a 503.
+    cardNumber.append(1 + random.nextInt(9));
+    int expiryYear = random.nextDouble() < options.invalidRatio()
+        ? 2000 : Year.now().getValue() + 1 + random.nextInt(5);
+    return String.format("""
+        {"cardNumber":"%s","expiryMonth":%d,"expiryYear":%d,"currency":"%s","amount":%d,\
+        "cvv":"%03d"}""", cardNumber, 1 + random.nextInt(12), expiryYear,
+        CURRENCIES[random.nextInt(CURRENCIES.length)], 1 + random.nextInt(100_000),
+        random.nextInt(1000));
+  }
+
+  private void remember(String paymentId) {
+    recentIds.set((int) (createdCount.getAndIncrement() % RECENT_IDS), paymentId);
+  }
+
+  private String recentId() {
+    long created = createdCount.get();
+    if (created == 0) {
+      return null;
+    }
+    return recentIds.get(ThreadLocalRandom.current().nextInt((int) Math.min(created, RECENT_IDS)));
+  }
+}
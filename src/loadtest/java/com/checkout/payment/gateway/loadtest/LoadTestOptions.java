@@ -0,0 +1,67 @@
+package com.checkout.payment.gateway.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, each given as {@code --name=value}. Without {@code --target} the gateway
+ * is started in-process against a {@code BankSimulator}.
+ */
+record LoadTestOptions(
+    URI target,
+    int rate,
+    Duration duration,
+    Duration warmup,
+    double getRatio,
+    double invalidRatio,
+    Path requests,
+    Duration bankLatencyMedian,
+    Duration bankLatencyP99,
+    double bankErrorRate,
+    Duration requestTimeout
+) {
+
+  private static final Set<String> NAMES = Set.of("target", "rate", "duration", "warmup",
+      "get-ratio", "invalid-ratio", "requests", "bank-latency-median", "bank-latency-p99",
+      "bank-error-rate", "request-timeout");
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got " + arg);
+      }
+      String name = arg.substring(2, separator);
+      if (!NAMES.contains(name)) {
+        throw new IllegalArgumentException("Unknown option --" + name + ", expected one of "
+            + NAMES);
+      }
+      values.put(name, arg.substring(separator + 1));
+    }
+
+    LoadTestOptions options = new LoadTestOptions(
+        values.containsKey("target") ? URI.create(values.get("target")) : null,
+        Integer.parseInt(values.getOrDefault("rate", "500")),
+        Duration.parse(values.getOrDefault("duration", "PT30S")),
+        Duration.parse(values.getOrDefault("warmup", "PT5S")),
+        Double.parseDouble(values.getOrDefault("get-ratio", "0.8")),
+        Double.parseDouble(values.getOrDefault("invalid-ratio", "0.02")),
+        values.containsKey("requests") ? Path.of(values.get("requests")) : null,
+        Duration.parse(values.getOrDefault("bank-latency-median", "PT0.05S")),
+        Duration.parse(values.getOrDefault("bank-latency-p99", "PT0.5S")),
+        Double.parseDouble(values.getOrDefault("bank-error-rate", "0.01")),
+        Duration.parse(values.getOrDefault("request-timeout", "PT30S")));
+    if (options.rate <= 0) {
+      throw new IllegalArgumentException("rate must be positive");
+    }
+    if (options.bankLatencyP99.compareTo(options.bankLatencyMedian) < 0) {
+      throw new IllegalArgumentException("bank-latency-p99 must not be below the median");
+    }
+    return options;
+  }
+}
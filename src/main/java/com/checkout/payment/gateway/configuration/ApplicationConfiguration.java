@@ -1,19 +1,55 @@
 package com.checkout.payment.gateway.configuration;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class ApplicationConfiguration {
 
+  /**
+   * {@code bank.client.keep-alive} and {@code bank.client.max-connections} are JVM-level settings:
+   * the JDK client only reads them from system properties, once, when the first client in the
+   * process is built. They apply to every {@link HttpClient} in the JVM, and explicit {@code -D}
+   * flags win.
+   */
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
-    return builder
-        .setConnectTimeout(Duration.ofMillis(10000))
-        .setReadTimeout(Duration.ofMillis(10000))
+  public HttpClient bankHttpClient(
+      @Value("${bank.client.executor-threads:8}") int executorThreads,
+      @Value("${bank.client.max-connections:0}") int maxConnections,
+      @Value("${bank.client.keep-alive:PT30S}") Duration keepAlive,
+      @Value("${bank.client.http-version:HTTP_1_1}") HttpClient.Version httpVersion,
+      @Value("${gateway.virtual-threads.enabled:false}") boolean virtualThreads) {
+    setPropertyIfAbsent("jdk.httpclient.keepalive.timeout", keepAlive.toSeconds());
+    if (maxConnections > 0) {
+      setPropertyIfAbsent("jdk.httpclient.connectionPoolSize", maxConnections);
+    }
+
+    return HttpClient.newBuilder()
+        .version(httpVersion)
+        .connectTimeout(Duration.ofMillis(10000))
+        .executor(virtualThreads ? Executors.newVirtualThreadPerTaskExecutor()
+            : bankClientExecutor(executorThreads))
         .build();
   }
+
+  private static ExecutorService bankClientExecutor(int threads) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "bank-client-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static void setPropertyIfAbsent(String key, long value) {
+    if (System.getProperty(key) == null) {
+      System.setProperty(key, String.valueOf(value));
+    }
+  }
 }
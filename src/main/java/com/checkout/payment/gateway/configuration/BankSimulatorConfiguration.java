@@ -0,0 +1,31 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.infrastructure.external.BankSimulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Runs {@link BankSimulator} inside the application under the {@code bank-simulator} profile. It
+ * listens on the mountebank imposter's port by default, so the bank URLs need no change.
+ */
+@Configuration
+@Profile("bank-simulator")
+public class BankSimulatorConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public BankSimulator bankSimulator(ObjectMapper objectMapper,
+      @Value("${bank.simulator.port:8080}") int port,
+      @Value("${bank.simulator.latency-median:PT0.05S}") Duration latencyMedian,
+      @Value("${bank.simulator.latency-p99:PT0.2S}") Duration latencyP99,
+      @Value("${bank.simulator.failure-rate:0}") double failureRate,
+      @Value("${bank.simulator.drop-rate:0}") double dropRate,
+      @Value("${bank.simulator.seed:0}") long seed) throws IOException {
+    return new BankSimulator(objectMapper,
+        new BankSimulator.Settings(port, latencyMedian, latencyP99, failureRate, dropRate, seed));
+  }
+}
@@ -0,0 +1,87 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.TieredPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.WriteBehindPaymentsRepository;
+import com.checkout.payment.gateway.service.InFlightPaymentLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+  @Bean
+  public MeterBinder paymentGauges(PaymentsRepository paymentsRepository,
+      BankConcurrencyLimiter bankConcurrencyLimiter,
+      InFlightPaymentLimiter inFlightPaymentLimiter) {
+    return registry -> {
+      Gauge.builder("payments.repository.size", paymentsRepository, PaymentsRepository::size)
+          .description("Payments held by the repository")
+          .register(registry);
+      Gauge.builder("bank.calls.in-flight", bankConcurrencyLimiter,
+              BankConcurrencyLimiter::inFlight)
+          .description("Bank calls currently in flight")
+          .register(registry);
+      Gauge.builder("bank.calls.limit", bankConcurrencyLimiter, BankConcurrencyLimiter::limit)
+          .description("Current bank concurrency limit")
+          .register(registry);
+      Gauge.builder("payments.in-flight", inFlightPaymentLimiter, InFlightPaymentLimiter::inFlight)
+          .description("Payments being processed asynchronously")
+          .register(registry);
+      paymentsRepository.unwrap(BoundedInMemoryPaymentsRepository.class).ifPresent(bounded -> {
+        FunctionCounter.builder("payments.repository.evictions", bounded,
+                BoundedInMemoryPaymentsRepository::evictionCount)
+            .description("Payments dropped by the repository")
+            .tag("cause", "size")
+            .register(registry);
+        FunctionCounter.builder("payments.repository.evictions", bounded,
+                BoundedInMemoryPaymentsRepository::expirationCount)
+            .description("Payments dropped by the repository")
+            .tag("cause", "ttl")
+            .register(registry);
+      });
+      paymentsRepository.unwrap(WriteBehindPaymentsRepository.class).ifPresent(writeBehind -> {
+        Gauge.builder("payments.write-behind.pending", writeBehind,
+                WriteBehindPaymentsRepository::pendingCount)
+            .description("Payments buffered but not yet written to the repository")
+            .register(registry);
+        Gauge.builder("payments.write-behind.lag", writeBehind,
+                repository -> repository.lag().toNanos() / 1e9)
+            .description("Age of the oldest payment not yet written to the repository")
+            .baseUnit("seconds")
+            .register(registry);
+        FunctionCounter.builder("payments.write-behind.flush.failures", writeBehind,
+                WriteBehindPaymentsRepository::flushFailureCount)
+            .description("Failed attempts to write a buffered batch to the repository")
+            .register(registry);
+      });
+      paymentsRepository.unwrap(TieredPaymentsRepository.class).ifPresent(tiered -> {
+        Gauge.builder("payments.cache.size", tiered,
+                repository -> repository.cache().estimatedSize())
+            .description("Payments and unknown ids held by the cache")
+            .register(registry);
+        FunctionCounter.builder("payments.cache.hits", tiered,
+                repository -> repository.cache().stats().hitCount())
+            .description("Reads answered by the cache")
+            .register(registry);
+        FunctionCounter.builder("payments.cache.misses", tiered,
+                repository -> repository.cache().stats().missCount())
+            .description("Reads passed through to the persistent repository")
+            .register(registry);
+        FunctionCounter.builder("payments.cache.evictions", tiered,
+                repository -> repository.cache().stats().evictionCount())
+            .description("Entries evicted from the cache for size or expiry")
+            .register(registry);
+        FunctionCounter.builder("payments.cache.negative.hits", tiered,
+                TieredPaymentsRepository::negativeHitCount)
+            .description("Reads of ids that no payment has")
+            .register(registry);
+      });
+    };
+  }
+}
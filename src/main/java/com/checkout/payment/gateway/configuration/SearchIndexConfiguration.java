@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.IndexedPaymentsRepository;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the {@link PaymentsRepository} in an {@link IndexedPaymentsRepository}, which serves
+ * {@code GET /payments} searches from secondary indexes. The indexes live on the heap and grow
+ * with the store, so they are opt-in.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payments.repository.search.enabled", havingValue = "true")
+public class SearchIndexConfiguration {
+
+  // Static so that the post-processor is registered before the repository is created, and typed
+  // so that its order is known before then too.
+  @Bean
+  public static SearchIndexPostProcessor indexedPaymentsRepositoryPostProcessor() {
+    return new SearchIndexPostProcessor();
+  }
+
+  // Outside the write-behind buffer, so buffered payments are searchable, and inside the cache.
+  static class SearchIndexPostProcessor implements BeanPostProcessor, Ordered {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof PaymentsRepository repository) {
+        return new IndexedPaymentsRepository(repository);
+      }
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.TieredPaymentsRepository;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts a {@link TieredPaymentsRepository} cache in front of whichever {@link PaymentsRepository}
+ * {@code payments.repository.type} selects, and preloads it with the most recent payments.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payments.repository.cache.enabled", havingValue = "true")
+public class TieredCacheConfiguration {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TieredCacheConfiguration.class);
+
+  // Static so that the post-processor is registered before the repository is created, and typed
+  // so that its order is known before then too.
+  @Bean
+  public static TieredCachePostProcessor tieredPaymentsRepositoryPostProcessor(
+      @Value("${payments.repository.cache.max-size:100000}") long maxSize,
+      @Value("${payments.repository.cache.negative-ttl:PT5S}") Duration negativeTtl,
+      @Value("${payments.repository.cache.warm-up-count:10000}") int warmUpCount) {
+    return new TieredCachePostProcessor(maxSize, negativeTtl, warmUpCount);
+  }
+
+  // Runs last, so the cache is the outermost layer around the repository.
+  record TieredCachePostProcessor(long maxSize, Duration negativeTtl, int warmUpCount)
+      implements BeanPostProcessor, Ordered {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof PaymentsRepository repository) {
+        TieredPaymentsRepository tiered =
+            new TieredPaymentsRepository(repository, maxSize, negativeTtl);
+        if (warmUpCount > 0) {
+          long start = System.nanoTime();
+          int loaded = tiered.warmUp(warmUpCount);
+          LOG.info("Warmed payments cache with {} payments in {} ms", loaded,
+              (System.nanoTime() - start) / 1_000_000);
+        }
+        return tiered;
+      }
+      return bean;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.WriteBehindPaymentsRepository;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps whichever {@link PaymentsRepository} {@code payments.repository.type} selects in a
+ * {@link WriteBehindPaymentsRepository}, so storage latency is taken off the payment path.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payments.repository.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfiguration {
+
+  // Static so that the post-processor is registered before the repository is created, and typed
+  // so that its order is known before then too.
+  @Bean
+  public static WriteBehindPostProcessor writeBehindPaymentsRepositoryPostProcessor(
+      @Value("${payments.repository.write-behind.queue-capacity:10000}") int queueCapacity,
+      @Value("${payments.repository.write-behind.batch-size:256}") int batchSize,
+      @Value("${payments.repository.write-behind.offer-timeout:PT1S}") Duration offerTimeout,
+      @Value("${payments.repository.write-behind.shutdown-timeout:PT30S}")
+      Duration shutdownTimeout) {
+    return new WriteBehindPostProcessor(queueCapacity, batchSize, offerTimeout, shutdownTimeout);
+  }
+
+  // Runs before the search index and cache post-processors, so both sit in front of the buffer.
+  // Spring destroys the repository bean it created, not the wrapper returned here, so the wrapper
+  // is drained just before that: after the web server has stopped taking payments and before the
+  // journal or connection pool underneath is closed.
+  static class WriteBehindPostProcessor implements DestructionAwareBeanPostProcessor, Ordered {
+
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final Map<String, WriteBehindPaymentsRepository> buffers = new ConcurrentHashMap<>();
+
+    WriteBehindPostProcessor(int queueCapacity, int batchSize, Duration offerTimeout,
+        Duration shutdownTimeout) {
+      this.queueCapacity = queueCapacity;
+      this.batchSize = batchSize;
+      this.offerTimeout = offerTimeout;
+      this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof PaymentsRepository repository) {
+        WriteBehindPaymentsRepository buffer = new WriteBehindPaymentsRepository(repository,
+            queueCapacity, batchSize, offerTimeout, shutdownTimeout);
+        buffers.put(beanName, buffer);
+        return buffer;
+      }
+      return bean;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) {
+      WriteBehindPaymentsRepository buffer = buffers.remove(beanName);
+      if (buffer != null) {
+        buffer.drain();
+      }
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+      return bean instanceof PaymentsRepository;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE - 2;
+    }
+  }
+}
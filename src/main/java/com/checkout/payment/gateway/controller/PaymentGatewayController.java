@@ -1,37 +1,119 @@
 package com.checkout.payment.gateway.controller;
 
-import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.dto.ErrorResponse;
+import com.checkout.payment.gateway.dto.PaymentLookupRequest;
+import com.checkout.payment.gateway.dto.PaymentLookupResponse;
+import com.checkout.payment.gateway.dto.PaymentSearchRequest;
 import com.checkout.payment.gateway.dto.PostPaymentRequest;
 import com.checkout.payment.gateway.dto.PostPaymentResponse;
+import com.checkout.payment.gateway.service.BulkPaymentService;
+import com.checkout.payment.gateway.service.InFlightPaymentLimiter;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
-import jakarta.validation.Valid;
+import com.checkout.payment.gateway.service.PaymentResponseCache;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import java.io.InputStream;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController("api")
 public class PaymentGatewayController {
 
   private final PaymentGatewayService paymentGatewayService;
+  private final PaymentRequestValidator paymentRequestValidator;
+  private final BulkPaymentService bulkPaymentService;
+  private final PaymentResponseCache paymentResponseCache;
+  private final InFlightPaymentLimiter inFlightPaymentLimiter;
 
-  public PaymentGatewayController(PaymentGatewayService paymentGatewayService) {
+  public PaymentGatewayController(PaymentGatewayService paymentGatewayService,
+      PaymentRequestValidator paymentRequestValidator, BulkPaymentService bulkPaymentService,
+      PaymentResponseCache paymentResponseCache, InFlightPaymentLimiter inFlightPaymentLimiter) {
     this.paymentGatewayService = paymentGatewayService;
+    this.paymentRequestValidator = paymentRequestValidator;
+    this.bulkPaymentService = bulkPaymentService;
+    this.paymentResponseCache = paymentResponseCache;
+    this.inFlightPaymentLimiter = inFlightPaymentLimiter;
   }
 
   @GetMapping("/payments/{id}")
-  public ResponseEntity<GetPaymentResponse> getPaymentEventById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+  public ResponseEntity<Object> getPaymentEventById(@PathVariable UUID id) {
+    Optional<SerializedPayment> payment =
+        paymentResponseCache.get(id, paymentGatewayService::findPaymentById);
+    if (payment.isEmpty()) {
+      return new ResponseEntity<>(ErrorResponse.PAYMENT_NOT_FOUND, HttpStatus.NOT_FOUND);
+    }
+    // Spring answers a matching If-None-Match with 304 once the ETag is set.
+    return ResponseEntity.ok()
+        .eTag(payment.get().etag())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(payment.get().body());
+  }
+
+  @GetMapping("/payments/authorizations/{authorizationCode}")
+  public ResponseEntity<Object> getPaymentEventByAuthorizationCode(
+      @PathVariable UUID authorizationCode) {
+    return paymentGatewayService.findPaymentByAuthorizationCode(authorizationCode)
+        .<ResponseEntity<Object>>map(payment -> new ResponseEntity<>(payment, HttpStatus.OK))
+        .orElseGet(() -> new ResponseEntity<>(ErrorResponse.PAYMENT_NOT_FOUND,
+            HttpStatus.NOT_FOUND));
+  }
+
+  @GetMapping("/payments")
+  public ResponseEntity<Object> searchPayments(
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) String currency,
+      @RequestParam(required = false) String lastFour,
+      @RequestParam(required = false) String from,
+      @RequestParam(required = false) String to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    PaymentSearchRequest request =
+        new PaymentSearchRequest(status, currency, lastFour, from, to, cursor, limit);
+    paymentRequestValidator.validate(request);
+
+    return paymentGatewayService.searchPayments(request)
+        .<ResponseEntity<Object>>map(page -> new ResponseEntity<>(page, HttpStatus.OK))
+        .orElseGet(() -> new ResponseEntity<>(ErrorResponse.SEARCH_NOT_ENABLED,
+            HttpStatus.NOT_FOUND));
+  }
+
+  @PostMapping("/payments/lookup")
+  public ResponseEntity<PaymentLookupResponse> lookupPayments(
+      @RequestBody PaymentLookupRequest request) {
+    paymentRequestValidator.validate(request);
+
+    return new ResponseEntity<>(paymentGatewayService.lookupPayments(request.ids()),
+        HttpStatus.OK);
   }
 
   @PostMapping("/payments")
-  public ResponseEntity<PostPaymentResponse> postPaymentEvent(@Valid @RequestBody PostPaymentRequest request) {
-    PostPaymentResponse resp =  paymentGatewayService.processPayment(request);
+  public CompletableFuture<ResponseEntity<PostPaymentResponse>> postPaymentEvent(
+      @RequestBody PostPaymentRequest request,
+      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+    paymentRequestValidator.validate(request);
+
+    return inFlightPaymentLimiter
+        .submit(() -> paymentGatewayService.processPaymentAsync(request, idempotencyKey))
+        .thenApply(resp -> new ResponseEntity<>(resp, HttpStatus.CREATED));
+  }
+
+  @PostMapping(value = "/payments/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> postPaymentEvents(InputStream requests) {
+    StreamingResponseBody responses = out -> bulkPaymentService.process(requests, out);
 
-    return new ResponseEntity<>(resp, HttpStatus.CREATED);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responses);
   }
 }
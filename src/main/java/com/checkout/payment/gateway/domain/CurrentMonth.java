@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.domain;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Current calendar month as a single {@code year * 12 + month - 1} value. The value is cached
+ * together with the instant the next month starts, so expiry checks only touch the clock's
+ * millisecond tick and recompute once a month.
+ */
+public final class CurrentMonth {
+
+  private static final CurrentMonth SYSTEM = new CurrentMonth(Clock.systemDefaultZone());
+
+  private final Clock clock;
+  private volatile Snapshot snapshot = new Snapshot(0, 0, 0);
+
+  public CurrentMonth(Clock clock) {
+    this.clock = clock;
+  }
+
+  public static CurrentMonth system() {
+    return SYSTEM;
+  }
+
+  public boolean isExpired(int expiryYear, int expiryMonth) {
+    return (long) expiryYear * 12 + expiryMonth - 1 <= value();
+  }
+
+  private long value() {
+    long now = clock.millis();
+    Snapshot current = snapshot;
+    if (now >= current.validUntil || now < current.validFrom) {
+      current = refresh();
+    }
+    return current.month;
+  }
+
+  private Snapshot refresh() {
+    LocalDate today = LocalDate.now(clock);
+    ZonedDateTime monthStart = today.withDayOfMonth(1).atStartOfDay(clock.getZone());
+    Snapshot current = new Snapshot((long) today.getYear() * 12 + today.getMonthValue() - 1,
+        monthStart.toInstant().toEpochMilli(), monthStart.plusMonths(1).toInstant().toEpochMilli());
+    snapshot = current;
+    return current;
+  }
+
+  private record Snapshot(long month, long validFrom, long validUntil) {}
+}
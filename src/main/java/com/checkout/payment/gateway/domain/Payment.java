@@ -1,7 +1,7 @@
 package com.checkout.payment.gateway.domain;
 
 import com.checkout.payment.gateway.exception.ExpiredCardException;
-import java.time.YearMonth;
+import java.time.Instant;
 import java.util.UUID;
 
 public class Payment {
@@ -13,20 +13,44 @@ public class Payment {
   private final String currency;
   private final int amount;
   private PaymentStatus status;
+  // The bank issues UUID authorization codes; both halves zero means there is none.
+  private long authorizationCodeMsb;
+  private long authorizationCodeLsb;
 
   public Payment(UUID id, PaymentStatus status, String fullCardNumber,
       int expiryMonth, int expiryYear, String currency, int amount) {
+    this(id, status, expiryMonth, expiryYear, currency, amount,
+        fullCardNumber.substring(fullCardNumber.length() - 4));
+
+    if (isExpired()) {
+      throw new ExpiredCardException("Card expiry date must be in the future");
+    }
+  }
+
+  private Payment(UUID id, PaymentStatus status, int expiryMonth, int expiryYear,
+      String currency, int amount, String cardNumberLastFour) {
     this.id = id;
     this.status = status;
-    this.cardNumberLastFour = fullCardNumber.substring(fullCardNumber.length() - 4);
+    this.cardNumberLastFour = cardNumberLastFour;
     this.expiryMonth = expiryMonth;
     this.expiryYear = expiryYear;
     this.currency = currency;
     this.amount = amount;
+  }
 
-    if (isExpired()) {
-      throw new ExpiredCardException("Card expiry date must be in the future");
-    }
+  public static Payment restore(UUID id, PaymentStatus status, String cardNumberLastFour,
+      int expiryMonth, int expiryYear, String currency, int amount) {
+    return new Payment(id, status, expiryMonth, expiryYear, currency, amount, cardNumberLastFour);
+  }
+
+  public static Payment restore(UUID id, PaymentStatus status, String cardNumberLastFour,
+      int expiryMonth, int expiryYear, String currency, int amount,
+      long authorizationCodeMsb, long authorizationCodeLsb) {
+    Payment payment = restore(id, status, cardNumberLastFour, expiryMonth, expiryYear, currency,
+        amount);
+    payment.authorizationCodeMsb = authorizationCodeMsb;
+    payment.authorizationCodeLsb = authorizationCodeLsb;
+    return payment;
   }
 
   public UUID id() {
@@ -37,6 +61,11 @@ public class Payment {
     return status;
   }
 
+  /** Taken from the id, so only payments with time-ordered ids have one; null otherwise. */
+  public Instant createdAt() {
+    return PaymentIdGenerator.createdAt(id);
+  }
+
   public String cardNumberLastFour() {
     return cardNumberLastFour;
   }
@@ -57,18 +86,72 @@ public class Payment {
     return amount;
   }
 
+  public boolean hasAuthorizationCode() {
+    return (authorizationCodeMsb | authorizationCodeLsb) != 0;
+  }
+
+  public boolean hasAuthorizationCode(UUID authorizationCode) {
+    return authorizationCodeMsb == authorizationCode.getMostSignificantBits()
+        && authorizationCodeLsb == authorizationCode.getLeastSignificantBits();
+  }
+
+  /** The bank's authorization code, or null when the payment was not authorized. */
+  public UUID authorizationCode() {
+    return hasAuthorizationCode() ? new UUID(authorizationCodeMsb, authorizationCodeLsb) : null;
+  }
+
+  public long authorizationCodeMostSignificantBits() {
+    return authorizationCodeMsb;
+  }
+
+  public long authorizationCodeLeastSignificantBits() {
+    return authorizationCodeLsb;
+  }
+
   public void processBankResponse(boolean isAuthorized) {
-    if (isAuthorized) {
-      this.status = PaymentStatus.AUTHORIZED;
-    } else {
-      this.status = PaymentStatus.DECLINED;
+    processBankResponse(isAuthorized, null);
+  }
+
+  /**
+   * Applies the bank's decision. A null or empty code records none; anything else must be a UUID
+   * and is parsed straight into two longs rather than kept as a string.
+   *
+   * @throws IllegalArgumentException if the code is not a UUID, leaving the payment unchanged
+   */
+  public void processBankResponse(boolean isAuthorized, String authorizationCode) {
+    long msb = 0;
+    long lsb = 0;
+    if (authorizationCode != null && !authorizationCode.isEmpty()) {
+      if (authorizationCode.length() != 36 || authorizationCode.charAt(8) != '-'
+          || authorizationCode.charAt(13) != '-' || authorizationCode.charAt(18) != '-'
+          || authorizationCode.charAt(23) != '-') {
+        throw new IllegalArgumentException("Authorization code must be a UUID");
+      }
+      msb = parseHex(authorizationCode, 0, 8) << 32
+          | parseHex(authorizationCode, 9, 13) << 16
+          | parseHex(authorizationCode, 14, 18);
+      lsb = parseHex(authorizationCode, 19, 23) << 48
+          | parseHex(authorizationCode, 24, 36);
     }
+    this.status = isAuthorized ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED;
+    this.authorizationCodeMsb = msb;
+    this.authorizationCodeLsb = lsb;
   }
 
   public boolean isExpired() {
-    YearMonth now = YearMonth.now();
-    YearMonth expiry = YearMonth.of(expiryYear, expiryMonth);
-    return !expiry.isAfter(now);
+    return CurrentMonth.system().isExpired(expiryYear, expiryMonth);
+  }
+
+  private static long parseHex(String value, int from, int to) {
+    long result = 0;
+    for (int i = from; i < to; i++) {
+      int digit = Character.digit(value.charAt(i), 16);
+      if (digit < 0) {
+        throw new IllegalArgumentException("Authorization code must be a UUID");
+      }
+      result = result << 4 | digit;
+    }
+    return result;
   }
 
   @Override
@@ -97,6 +180,7 @@ public class Payment {
         ", expiryYear=" + expiryYear +
         ", currency='" + currency + '\'' +
         ", amount=" + amount +
+        ", authorizationCode=" + authorizationCode() +
         '}';
   }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.domain;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered version 7 UUIDs: 48 bits of Unix milliseconds followed by 74 random
+ * bits, so ids sort by creation time and land next to each other in ordered indexes. The random
+ * bits come from {@link ThreadLocalRandom}, which has no shared state and no entropy pool, unlike
+ * the {@code SecureRandom} behind {@link UUID#randomUUID()}. The ids are unique but not
+ * unguessable, so nothing may rely on a payment id being secret.
+ */
+public final class PaymentIdGenerator {
+
+  private static final PaymentIdGenerator SYSTEM = new PaymentIdGenerator(Clock.systemUTC());
+
+  private static final long VERSION_7 = 0x7000L;
+  private static final long RFC_4122_VARIANT = 0x8000_0000_0000_0000L;
+  // The last millisecond whose ids keep a positive high half, so UUID.compareTo orders them.
+  private static final long MAX_MILLIS = (1L << 47) - 1;
+
+  private final Clock clock;
+
+  public PaymentIdGenerator(Clock clock) {
+    this.clock = clock;
+  }
+
+  public static PaymentIdGenerator system() {
+    return SYSTEM;
+  }
+
+  public UUID next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long msb = clock.millis() << 16 | VERSION_7 | random.nextInt(1 << 12);
+    long lsb = random.nextLong() >>> 2 | RFC_4122_VARIANT;
+    return new UUID(msb, lsb);
+  }
+
+  /** When a version 7 id was generated, or null for any other kind of UUID. */
+  public static Instant createdAt(UUID id) {
+    return isTimeOrdered(id) ? Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16) : null;
+  }
+
+  public static boolean isTimeOrdered(UUID id) {
+    return id.version() == 7 && id.variant() == 2;
+  }
+
+  /**
+   * The smallest version 7 id generated at or after {@code instant}, clamped to the years 1970 to
+   * 6429. Ids carry whole milliseconds, so an instant part way through a millisecond rounds up to
+   * the next one: an id sorts at or above the bound exactly when its creation time is at or after
+   * {@code instant}.
+   */
+  public static UUID lowerBound(Instant instant) {
+    long seconds = instant.getEpochSecond();
+    long millis = seconds >= MAX_MILLIS / 1000 ? MAX_MILLIS
+        : seconds < 0 ? 0
+        : seconds * 1000 + Math.ceilDiv(instant.getNano(), 1_000_000);
+    return new UUID(millis << 16 | VERSION_7, RFC_4122_VARIANT);
+  }
+}
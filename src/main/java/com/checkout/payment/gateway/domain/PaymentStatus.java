@@ -17,5 +17,15 @@ public enum PaymentStatus {
   public String getName() {
     return this.name;
   }
+
+  /** The status whose name matches, ignoring case, or null if there is none. */
+  public static PaymentStatus fromName(String name) {
+    for (PaymentStatus status : values()) {
+      if (status.name.equalsIgnoreCase(name)) {
+        return status;
+      }
+    }
+    return null;
+  }
 }
 
@@ -0,0 +1,13 @@
+package com.checkout.payment.gateway.domain;
+
+public enum SupportedCurrency {
+  USD,
+  EUR,
+  GBP;
+
+  private static final SupportedCurrency[] VALUES = values();
+
+  public static SupportedCurrency fromOrdinal(int ordinal) {
+    return VALUES[ordinal];
+  }
+}
@@ -0,0 +1,22 @@
+package com.checkout.payment.gateway.domain.repository;
+
+/**
+ * Where the next {@link PaymentsRepository#search} page starts: just past the payment whose index
+ * key is {@code key}. Clients see it as up to 16 hex digits.
+ */
+public record PaymentCursor(long key) {
+
+  /** Reads a cursor written by {@link #toString}, throwing IllegalArgumentException otherwise. */
+  public static PaymentCursor parse(String text) {
+    try {
+      return new PaymentCursor(Long.parseUnsignedLong(text, 16));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Cursor is not valid", e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return Long.toHexString(key);
+  }
+}
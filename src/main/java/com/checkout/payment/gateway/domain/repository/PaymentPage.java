@@ -0,0 +1,10 @@
+package com.checkout.payment.gateway.domain.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import java.util.List;
+
+/** One page of search results, newest first; {@code nextCursor} is null on the last page. */
+public record PaymentPage(
+    List<Payment> payments,
+    PaymentCursor nextCursor
+) {}
@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.domain.repository;
+
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import java.time.Instant;
+
+/**
+ * Filters for {@link PaymentsRepository#search}. A null field matches every payment; {@code from}
+ * is inclusive and {@code to} exclusive.
+ */
+public record PaymentSearchCriteria(
+    PaymentStatus status,
+    String currency,
+    String cardNumberLastFour,
+    Instant from,
+    Instant to
+) {}
@@ -1,12 +1,63 @@
 package com.checkout.payment.gateway.domain.repository;
 
 import com.checkout.payment.gateway.domain.Payment;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface PaymentsRepository {
   void add(Payment payment);
+
+  /** Stores the payments in order; implementations may write them more cheaply than one by one. */
+  default void addAll(Collection<Payment> payments) {
+    for (Payment payment : payments) {
+      add(payment);
+    }
+  }
+
   Optional<Payment> get(UUID id);
+  Map<UUID, Payment> getAll(Collection<UUID> ids);
+  Optional<Payment> findByAuthorizationCode(UUID authorizationCode);
+
+  /**
+   * Up to {@code limit} of the most recently stored payments, newest first. Stores that do not
+   * track insertion order return none.
+   */
+  default List<Payment> findMostRecent(int limit) {
+    return List.of();
+  }
+
+  /**
+   * Up to {@code limit} payments matching {@code criteria}, newest first, starting after
+   * {@code cursor} or from the newest payment when it is null.
+   *
+   * @throws UnsupportedOperationException if the store keeps no secondary indexes
+   */
+  default PaymentPage search(PaymentSearchCriteria criteria, PaymentCursor cursor, int limit) {
+    throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be searched");
+  }
+
+  /**
+   * Passes every payment created in {@code [from, to)} to {@code action}, oldest first. Only
+   * payments with time-ordered ids have a creation time; the others are never passed on. Creation
+   * times are whole milliseconds and are compared with the bounds as {@link Instant}s, so a bound
+   * part way through a millisecond falls after every payment created in that millisecond.
+   */
+  void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action);
+
+  int size();
+
+  /**
+   * This repository, or the first one down its chain of delegates, if it is a {@code type}.
+   * Decorators look through to their delegate, so callers need not know how the chain is built.
+   */
+  default <T> Optional<T> unwrap(Class<T> type) {
+    return type.isInstance(this) ? Optional.of(type.cast(this)) : Optional.empty();
+  }
 }
 
 
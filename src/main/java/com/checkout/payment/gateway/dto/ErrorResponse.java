@@ -9,6 +9,10 @@ public record ErrorResponse(
     String code,
     String status
 ) {
+    public static final ErrorResponse PAYMENT_NOT_FOUND = new ErrorResponse("Payment not found");
+    public static final ErrorResponse SEARCH_NOT_ENABLED =
+        new ErrorResponse("Payment search is not enabled");
+
     public ErrorResponse(String message) {
         this(message, null, null);
     }
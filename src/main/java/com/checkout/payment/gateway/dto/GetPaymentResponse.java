@@ -1,6 +1,7 @@
 package com.checkout.payment.gateway.dto;
 
 import com.checkout.payment.gateway.domain.PaymentStatus;
+import java.time.Instant;
 import java.util.UUID;
 
 public record GetPaymentResponse(
@@ -10,5 +11,7 @@ public record GetPaymentResponse(
     int expiryMonth,
     int expiryYear,
     String currency,
-    int amount
+    int amount,
+    Instant createdAt,
+    UUID authorizationCode
 ) {}
@@ -0,0 +1,8 @@
+package com.checkout.payment.gateway.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PaymentLookupRequest(
+    List<UUID> ids
+) {}
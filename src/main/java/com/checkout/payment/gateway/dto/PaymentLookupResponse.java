@@ -0,0 +1,9 @@
+package com.checkout.payment.gateway.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PaymentLookupResponse(
+    List<GetPaymentResponse> payments,
+    List<UUID> missing
+) {}
@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.dto;
+
+public record PaymentSearchRequest(
+    String status,
+    String currency,
+    String lastFour,
+    String from,
+    String to,
+    String cursor,
+    Integer limit
+) {}
@@ -0,0 +1,8 @@
+package com.checkout.payment.gateway.dto;
+
+import java.util.List;
+
+public record PaymentSearchResponse(
+    List<GetPaymentResponse> payments,
+    String nextCursor
+) {}
@@ -2,6 +2,7 @@ package com.checkout.payment.gateway.dto;
 
 import com.checkout.payment.gateway.domain.PaymentStatus;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
 import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -12,5 +13,6 @@ public record PostPaymentResponse(
     Integer expiryMonth,
     Integer expiryYear,
     String currency,
-    Integer amount
+    Integer amount,
+    Instant createdAt
 ) {}
@@ -0,0 +1,8 @@
+package com.checkout.payment.gateway.exception;
+
+public class BankCallRejectedException extends BankServiceException {
+  public BankCallRejectedException(String message) {
+    // Thrown for every shed call while the bank is overloaded; the trace would only add cost.
+    super(message, false);
+  }
+}
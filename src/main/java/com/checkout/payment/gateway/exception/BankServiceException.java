@@ -4,4 +4,12 @@ public class BankServiceException extends RuntimeException {
   public BankServiceException(String message) {
     super(message);
   }
+
+  public BankServiceException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  protected BankServiceException(String message, boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+  }
 }
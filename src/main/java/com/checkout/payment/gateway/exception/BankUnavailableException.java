@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * The bank did not process the request: it answered 503 or could not be connected to. Unlike other
+ * bank failures, these are safe to retry.
+ */
+public class BankUnavailableException extends BankServiceException {
+  public BankUnavailableException(String message) {
+    super(message);
+  }
+
+  public BankUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
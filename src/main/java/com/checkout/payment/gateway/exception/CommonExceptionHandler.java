@@ -1,13 +1,16 @@
 package com.checkout.payment.gateway.exception;
 
 import com.checkout.payment.gateway.dto.ErrorResponse;
-import java.util.stream.Collectors;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -16,54 +19,123 @@ public class CommonExceptionHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(CommonExceptionHandler.class);
 
-  @ExceptionHandler(PaymentNotFoundException.class)
-  public ResponseEntity<ErrorResponse> handlePaymentNotFound(PaymentNotFoundException ex) {
-    LOG.error("Payment not found: {}", ex.getMessage(), ex);
-    return new ResponseEntity<>(new ErrorResponse("Payment not found"), HttpStatus.NOT_FOUND);
+  private static final Duration REJECTION_LOG_INTERVAL = Duration.ofSeconds(1);
+
+  private final PaymentMetrics metrics;
+  private final LogRateLimiter bankErrorLog = new LogRateLimiter(REJECTION_LOG_INTERVAL);
+  private final LogRateLimiter bankRejectionLog = new LogRateLimiter(REJECTION_LOG_INTERVAL);
+  private final LogRateLimiter requestRejectionLog = new LogRateLimiter(REJECTION_LOG_INTERVAL);
+
+  public CommonExceptionHandler(PaymentMetrics metrics) {
+    this.metrics = metrics;
   }
 
   @ExceptionHandler(BankServiceException.class)
   public ResponseEntity<ErrorResponse> handleBankServiceException(BankServiceException ex) {
-    LOG.error("Bank service error: {}", ex.getMessage(), ex);
+    logRejection(bankErrorLog, "Bank service error", ex);
+    return new ResponseEntity<>(new ErrorResponse("Payment gateway is unavailable"),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(BankCallRejectedException.class)
+  public ResponseEntity<ErrorResponse> handleBankCallRejected(BankCallRejectedException ex) {
+    logRejection(bankRejectionLog, "Bank call rejected", ex);
+    return new ResponseEntity<>(new ErrorResponse("Payment gateway is unavailable"),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(TimeoutException.class)
+  public ResponseEntity<ErrorResponse> handleTimeout(TimeoutException ex) {
+    logRejection(bankRejectionLog, "Payment timed out", ex);
     return new ResponseEntity<>(new ErrorResponse("Payment gateway is unavailable"),
         HttpStatus.SERVICE_UNAVAILABLE);
   }
 
   @ExceptionHandler(ExpiredCardException.class)
   public ResponseEntity<ErrorResponse> handleExpiredCard(ExpiredCardException ex) {
-    LOG.warn("Expired card: {}", ex.getMessage());
+    logRejection(requestRejectionLog, "Expired card", ex);
+    metrics.recordRejection("EXPIRED_CARD");
     return new ResponseEntity<>(
         ErrorResponse.rejected("Card expiry date must be in the future", "EXPIRED_CARD"),
         HttpStatus.BAD_REQUEST
     );
   }
 
-  @ExceptionHandler(MethodArgumentNotValidException.class)
+  @ExceptionHandler(IdempotencyKeyConflictException.class)
+  public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflict(
+      IdempotencyKeyConflictException ex) {
+    logRejection(requestRejectionLog, "Idempotency key conflict", ex);
+    metrics.recordRejection("IDEMPOTENCY_KEY_REUSED");
+    return new ResponseEntity<>(
+        ErrorResponse.rejected(ex.getMessage(), "IDEMPOTENCY_KEY_REUSED"),
+        HttpStatus.CONFLICT
+    );
+  }
+
+  @ExceptionHandler(InvalidPaymentRequestException.class)
   public ResponseEntity<ErrorResponse> handleValidationException(
-      MethodArgumentNotValidException ex) {
-    LOG.warn("Validation failed: {}", ex.getMessage());
+      InvalidPaymentRequestException ex) {
+    logRejection(requestRejectionLog, "Validation failed", ex);
+    metrics.recordRejection("VALIDATION_ERROR");
 
-    String errorMessage = buildValidationErrorMessage(ex);
     return new ResponseEntity<>(
-        ErrorResponse.rejected("Validation failed: " + errorMessage, "VALIDATION_ERROR"),
+        ErrorResponse.rejected("Validation failed: " + ex.getMessage(), "VALIDATION_ERROR"),
         HttpStatus.BAD_REQUEST
     );
   }
 
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<ErrorResponse> handleInvalidJson(HttpMessageNotReadableException ex) {
-    LOG.warn("Invalid JSON format: {}", ex.getMessage());
+    return invalidJson(ex);
+  }
+
+  /**
+   * Maps an exception to the response its handler above would produce, for callers that report
+   * errors inline rather than by throwing, such as the bulk endpoint.
+   */
+  public ResponseEntity<ErrorResponse> handle(Throwable ex) {
+    if (ex instanceof CompletionException && ex.getCause() != null) {
+      return handle(ex.getCause());
+    }
+    if (ex instanceof InvalidPaymentRequestException e) {
+      return handleValidationException(e);
+    }
+    if (ex instanceof ExpiredCardException e) {
+      return handleExpiredCard(e);
+    }
+    if (ex instanceof IdempotencyKeyConflictException e) {
+      return handleIdempotencyKeyConflict(e);
+    }
+    if (ex instanceof BankCallRejectedException e) {
+      return handleBankCallRejected(e);
+    }
+    if (ex instanceof BankServiceException e) {
+      return handleBankServiceException(e);
+    }
+    if (ex instanceof TimeoutException e) {
+      return handleTimeout(e);
+    }
+    if (ex instanceof JsonProcessingException || ex instanceof HttpMessageNotReadableException) {
+      return invalidJson(ex);
+    }
+    LOG.error("Unexpected payment error", ex);
+    return new ResponseEntity<>(new ErrorResponse("Internal server error"),
+        HttpStatus.INTERNAL_SERVER_ERROR);
+  }
+
+  private ResponseEntity<ErrorResponse> invalidJson(Throwable ex) {
+    logRejection(requestRejectionLog, "Invalid JSON format", ex);
+    metrics.recordRejection("INVALID_JSON");
     return new ResponseEntity<>(
         ErrorResponse.rejected("Invalid JSON format", "INVALID_JSON"),
         HttpStatus.BAD_REQUEST
     );
   }
 
-  private String buildValidationErrorMessage(MethodArgumentNotValidException ex) {
-    return ex.getBindingResult()
-        .getFieldErrors()
-        .stream()
-        .map(error -> error.getField() + ": " + error.getDefaultMessage())
-        .collect(Collectors.joining(", "));
+  private static void logRejection(LogRateLimiter limiter, String reason, Throwable ex) {
+    if (limiter.tryAcquire()) {
+      LOG.warn("{}: {} ({} similar rejections suppressed)", reason, ex.getMessage(),
+          limiter.drainSuppressed());
+    }
   }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package com.checkout.payment.gateway.exception;
 
-public class ExpiredCardException extends RuntimeException {
+public class ExpiredCardException extends PaymentRejectedException {
     public ExpiredCardException(String message) {
         super(message);
     }
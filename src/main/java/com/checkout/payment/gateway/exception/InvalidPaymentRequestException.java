@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class InvalidPaymentRequestException extends PaymentRejectedException {
+  public InvalidPaymentRequestException(String message) {
+    super(message);
+  }
+}
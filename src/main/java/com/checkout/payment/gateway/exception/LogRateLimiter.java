@@ -0,0 +1,34 @@
+package com.checkout.payment.gateway.exception;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets one log line through per interval and counts the rest, so a flood of identical rejections
+ * costs a counter increment instead of a formatted log line each.
+ */
+class LogRateLimiter {
+
+  private final long intervalNanos;
+  private final AtomicLong nextPermitted = new AtomicLong(System.nanoTime());
+  private final LongAdder suppressed = new LongAdder();
+
+  LogRateLimiter(Duration interval) {
+    this.intervalNanos = interval.toNanos();
+  }
+
+  boolean tryAcquire() {
+    long now = System.nanoTime();
+    long next = nextPermitted.get();
+    if (now - next >= 0 && nextPermitted.compareAndSet(next, now + intervalNanos)) {
+      return true;
+    }
+    suppressed.increment();
+    return false;
+  }
+
+  long drainSuppressed() {
+    return suppressed.sumThenReset();
+  }
+}
@@ -1,7 +0,0 @@
-package com.checkout.payment.gateway.exception;
-
-public class PaymentNotFoundException extends RuntimeException {
-  public PaymentNotFoundException(String message) {
-    super(message);
-  }
-}
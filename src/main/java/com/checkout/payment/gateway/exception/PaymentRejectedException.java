@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * Base for expected, client-caused outcomes. These are thrown often under scanning traffic or bad
+ * batches and always mapped to a response, so they skip stack trace capture.
+ */
+public abstract class PaymentRejectedException extends RuntimeException {
+  protected PaymentRejectedException(String message) {
+    super(message, null, false, false);
+  }
+}
@@ -0,0 +1,9 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncBankClient {
+  CompletableFuture<BankPaymentResponse> processPayment(PostPaymentRequest request);
+}
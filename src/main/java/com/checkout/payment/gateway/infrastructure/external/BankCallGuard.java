@@ -0,0 +1,88 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BankCallGuard {
+
+  private final BankCircuitBreaker circuitBreaker;
+  private final BankConcurrencyLimiter concurrencyLimiter;
+  private final PaymentMetrics metrics;
+
+  public BankCallGuard(BankCircuitBreaker circuitBreaker,
+      BankConcurrencyLimiter concurrencyLimiter, PaymentMetrics metrics) {
+    this.circuitBreaker = circuitBreaker;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.metrics = metrics;
+  }
+
+  public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> bankCall) {
+    return guardAsync(bankCall, true);
+  }
+
+  /**
+   * Guards a call that answers several payments at once. The breaker and limiter see it as one
+   * call, but nothing is recorded in {@code bank.calls}: the caller records each payment's outcome.
+   */
+  public <T> CompletableFuture<T> callBatchAsync(Supplier<CompletableFuture<T>> bankCall) {
+    return guardAsync(bankCall, false);
+  }
+
+  private <T> CompletableFuture<T> guardAsync(Supplier<CompletableFuture<T>> bankCall,
+      boolean recorded) {
+    if (!concurrencyLimiter.tryAcquire()) {
+      return CompletableFuture.failedFuture(rejected("Bank concurrency limit reached", recorded));
+    }
+    if (!circuitBreaker.tryAcquirePermission()) {
+      concurrencyLimiter.release();
+      return CompletableFuture.failedFuture(rejected("Bank circuit breaker is open", recorded));
+    }
+
+    long start = System.nanoTime();
+    CompletableFuture<T> call;
+    try {
+      call = bankCall.get();
+    } catch (RuntimeException e) {
+      onError(e, System.nanoTime() - start, recorded);
+      concurrencyLimiter.release();
+      return CompletableFuture.failedFuture(e);
+    }
+    return call.whenComplete((result, error) -> {
+      long duration = System.nanoTime() - start;
+      if (error == null) {
+        onSuccess(result, duration, recorded);
+      } else {
+        onError(error, duration, recorded);
+      }
+      concurrencyLimiter.release();
+    });
+  }
+
+  private BankCallRejectedException rejected(String message, boolean recorded) {
+    BankCallRejectedException rejection = new BankCallRejectedException(message);
+    if (recorded) {
+      metrics.recordBankCall(null, rejection, 0);
+    }
+    return rejection;
+  }
+
+  private void onSuccess(Object result, long durationNanos, boolean recorded) {
+    circuitBreaker.onSuccess(durationNanos);
+    concurrencyLimiter.onSuccess(durationNanos);
+    if (recorded) {
+      metrics.recordBankCall(result, null, durationNanos);
+    }
+  }
+
+  private void onError(Throwable error, long durationNanos, boolean recorded) {
+    circuitBreaker.onError(durationNanos);
+    concurrencyLimiter.onDropped();
+    if (recorded) {
+      metrics.recordBankCall(null, error, durationNanos);
+    }
+  }
+}
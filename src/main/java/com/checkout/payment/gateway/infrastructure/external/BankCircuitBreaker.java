@@ -0,0 +1,166 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Count-based circuit breaker for bank calls. While closed it tracks the outcome of the last
+ * {@code windowSize} calls and opens once either the failure rate or the slow-call rate reaches its
+ * threshold. After {@code openDuration} it lets {@code halfOpenCalls} trial calls through; any
+ * failed or slow trial reopens the circuit, and all of them succeeding closes it.
+ */
+@Component
+public class BankCircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private static final Logger LOG = LoggerFactory.getLogger(BankCircuitBreaker.class);
+  private static final byte FAILED = 1;
+  private static final byte SLOW = 2;
+
+  private final double failureRateThreshold;
+  private final double slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final int minimumCalls;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final LongSupplier nanoClock;
+  private final byte[] outcomes;
+  private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+
+  private State state = State.CLOSED;
+  private int next;
+  private int recorded;
+  private int failures;
+  private int slowCalls;
+  private long openedAt;
+  private int halfOpenPermitted;
+  private int halfOpenSucceeded;
+
+  @Autowired
+  public BankCircuitBreaker(
+      @Value("${bank.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+      @Value("${bank.circuit-breaker.slow-call-rate-threshold:0.5}") double slowCallRateThreshold,
+      @Value("${bank.circuit-breaker.slow-call-duration:PT2S}") Duration slowCallDuration,
+      @Value("${bank.circuit-breaker.window-size:100}") int windowSize,
+      @Value("${bank.circuit-breaker.minimum-calls:20}") int minimumCalls,
+      @Value("${bank.circuit-breaker.open-duration:PT10S}") Duration openDuration,
+      @Value("${bank.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+    this(failureRateThreshold, slowCallRateThreshold, slowCallDuration, windowSize, minimumCalls,
+        openDuration, halfOpenCalls, System::nanoTime);
+  }
+
+  public BankCircuitBreaker(double failureRateThreshold, double slowCallRateThreshold,
+      Duration slowCallDuration, int windowSize, int minimumCalls, Duration openDuration,
+      int halfOpenCalls, LongSupplier nanoClock) {
+    if (windowSize <= 0 || minimumCalls <= 0 || halfOpenCalls <= 0) {
+      throw new IllegalArgumentException("Circuit breaker sizes must be positive");
+    }
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallNanos = slowCallDuration.toNanos();
+    this.outcomes = new byte[windowSize];
+    this.minimumCalls = Math.min(minimumCalls, windowSize);
+    this.openNanos = openDuration.toNanos();
+    this.halfOpenCalls = halfOpenCalls;
+    this.nanoClock = nanoClock;
+    for (State target : State.values()) {
+      transitions.put(target, new LongAdder());
+    }
+  }
+
+  public synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN) {
+      if (nanoClock.getAsLong() - openedAt < openNanos) {
+        return false;
+      }
+      transitionTo(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (halfOpenPermitted == halfOpenCalls) {
+        return false;
+      }
+      halfOpenPermitted++;
+    }
+    return true;
+  }
+
+  public synchronized void onSuccess(long durationNanos) {
+    record(durationNanos >= slowCallNanos ? SLOW : 0);
+  }
+
+  public synchronized void onError(long durationNanos) {
+    record((byte) (FAILED | (durationNanos >= slowCallNanos ? SLOW : 0)));
+  }
+
+  public synchronized State state() {
+    return state;
+  }
+
+  public long transitionCount(State target) {
+    return transitions.get(target).sum();
+  }
+
+  private void record(byte outcome) {
+    if (state == State.HALF_OPEN) {
+      if (outcome != 0) {
+        transitionTo(State.OPEN);
+      } else if (++halfOpenSucceeded == halfOpenCalls) {
+        transitionTo(State.CLOSED);
+      }
+      return;
+    }
+    if (state == State.OPEN) {
+      return;
+    }
+
+    if (recorded == outcomes.length) {
+      forget(outcomes[next]);
+    } else {
+      recorded++;
+    }
+    outcomes[next] = outcome;
+    failures += outcome & FAILED;
+    slowCalls += (outcome & SLOW) >> 1;
+    next = (next + 1) % outcomes.length;
+
+    if (recorded >= minimumCalls
+        && (failures >= failureRateThreshold * recorded
+        || slowCalls >= slowCallRateThreshold * recorded)) {
+      transitionTo(State.OPEN);
+    }
+  }
+
+  private void forget(byte outcome) {
+    failures -= outcome & FAILED;
+    slowCalls -= (outcome & SLOW) >> 1;
+  }
+
+  private void transitionTo(State target) {
+    LOG.warn("Bank circuit breaker transition {} -> {}", state, target);
+    state = target;
+    transitions.get(target).increment();
+    halfOpenPermitted = 0;
+    halfOpenSucceeded = 0;
+    if (target == State.OPEN) {
+      openedAt = nanoClock.getAsLong();
+    } else if (target == State.CLOSED) {
+      next = 0;
+      recorded = 0;
+      failures = 0;
+      slowCalls = 0;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps concurrent bank calls. In adaptive mode the cap follows an AIMD rule between
+ * {@code minLimit} and {@code maxLimit}: every call answered within the latency threshold raises it
+ * by {@code 1 / limit}, and every failed or slow call cuts it by ten percent.
+ */
+@Component
+public class BankConcurrencyLimiter {
+
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final AdjustableSemaphore permits;
+  private final int minLimit;
+  private final int maxLimit;
+  private final boolean adaptive;
+  private final long latencyThresholdNanos;
+  private final long acquireTimeoutNanos;
+  private double limit;
+  private volatile int appliedLimit;
+
+  public BankConcurrencyLimiter(int maxConcurrentRequests, Duration acquireTimeout) {
+    this(maxConcurrentRequests, acquireTimeout, false, maxConcurrentRequests, Duration.ZERO);
+  }
+
+  @Autowired
+  public BankConcurrencyLimiter(
+      @Value("${bank.client.max-concurrent-requests:1000}") int maxConcurrentRequests,
+      @Value("${bank.client.acquire-timeout:PT0S}") Duration acquireTimeout,
+      @Value("${bank.client.adaptive-limit.enabled:true}") boolean adaptive,
+      @Value("${bank.client.adaptive-limit.min:10}") int minConcurrentRequests,
+      @Value("${bank.client.adaptive-limit.latency-threshold:PT1S}") Duration latencyThreshold) {
+    if (maxConcurrentRequests <= 0) {
+      throw new IllegalArgumentException("maxConcurrentRequests must be positive");
+    }
+    this.maxLimit = maxConcurrentRequests;
+    this.minLimit = Math.max(1, Math.min(minConcurrentRequests, maxConcurrentRequests));
+    this.adaptive = adaptive;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    this.limit = maxConcurrentRequests;
+    this.appliedLimit = maxConcurrentRequests;
+    this.permits = new AdjustableSemaphore(maxConcurrentRequests);
+  }
+
+  public void acquire() {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        throw new BankCallRejectedException("Bank concurrency limit reached");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BankCallRejectedException("Interrupted while waiting for the bank");
+    }
+  }
+
+  public boolean tryAcquire() {
+    return permits.tryAcquire();
+  }
+
+  public void release() {
+    permits.release();
+  }
+
+  public void onSuccess(long durationNanos) {
+    if (!adaptive) {
+      return;
+    }
+    if (durationNanos > latencyThresholdNanos) {
+      onDropped();
+      return;
+    }
+    synchronized (this) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+      applyLimit();
+    }
+  }
+
+  public void onDropped() {
+    if (!adaptive) {
+      return;
+    }
+    synchronized (this) {
+      limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      applyLimit();
+    }
+  }
+
+  public int limit() {
+    return appliedLimit;
+  }
+
+  public int inFlight() {
+    return Math.max(0, appliedLimit - permits.availablePermits());
+  }
+
+  private void applyLimit() {
+    int target = (int) limit;
+    int delta = target - appliedLimit;
+    if (delta > 0) {
+      permits.release(delta);
+    } else if (delta < 0) {
+      permits.reducePermits(-delta);
+    }
+    appliedLimit = target;
+  }
+
+  private static final class AdjustableSemaphore extends Semaphore {
+
+    AdjustableSemaphore(int permits) {
+      super(permits);
+    }
+
+    @Override
+    protected void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+}
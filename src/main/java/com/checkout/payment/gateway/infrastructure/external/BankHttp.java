@@ -0,0 +1,101 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What the HTTP bank clients share: the bank's request format, and how a call and its status codes
+ * map onto {@link BankUnavailableException}, which is retried, and {@link BankServiceException},
+ * which is not.
+ */
+final class BankHttp {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BankHttp.class);
+
+  private BankHttp() {
+  }
+
+  static BankPaymentRequest createBankRequest(PostPaymentRequest request) {
+    return new BankPaymentRequest(
+        request.cardNumber(),
+        formatExpiryDate(request.expiryMonth(), request.expiryYear()),
+        request.currency(),
+        request.amount(),
+        request.cvv()
+    );
+  }
+
+  static String formatExpiryDate(int month, int year) {
+    return String.format("%02d/%02d", month, year % 100);
+  }
+
+  /** A JSON POST that times out at {@code requestTimeout} or the deadline, whichever is sooner. */
+  static HttpRequest.Builder post(URI uri, byte[] body, Duration requestTimeout,
+      long deadlineNanos) {
+    return HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofNanos(Math.max(1, Math.min(requestTimeout.toNanos(),
+            deadlineNanos - System.nanoTime()))))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+  }
+
+  /**
+   * Sends {@code request} and maps the response with {@code onResponse}. A call that never reached
+   * the bank fails with {@link BankUnavailableException}, any other failure with
+   * {@link BankServiceException}.
+   */
+  static <T> CompletableFuture<T> send(HttpClient httpClient, HttpRequest request,
+      Function<HttpResponse<byte[]>, T> onResponse) {
+    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        .handle((response, error) -> {
+          if (error != null) {
+            LOG.warn("Bank call to {} failed: {}", request.uri(), error.toString());
+            throw new CompletionException(isConnectFailure(error)
+                ? new BankUnavailableException("Bank service is unreachable", error)
+                : new BankServiceException("Bank service error", error));
+          }
+          return onResponse.apply(response);
+        });
+  }
+
+  /** Reads a 200 response's body as {@code type}; a 503 or any other status fails the call. */
+  static <T> T read(ObjectMapper objectMapper, HttpResponse<byte[]> response, Class<T> type) {
+    if (response.statusCode() == 503) {
+      throw new CompletionException(new BankUnavailableException("Bank service is unavailable"));
+    }
+    if (response.statusCode() != 200) {
+      throw new CompletionException(
+          new BankServiceException("Unexpected response code: " + response.statusCode()));
+    }
+    try {
+      return objectMapper.readValue(response.body(), type);
+    } catch (IOException e) {
+      throw new CompletionException(new BankServiceException("Bank service error", e));
+    }
+  }
+
+  static boolean isConnectFailure(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,192 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.infrastructure.external.dto.BankBatchItemResponse;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for the mountebank bank simulator, answering {@code POST /payments} and
+ * {@code POST /payments/batch} with the same card number rules: an odd last digit is authorized
+ * with a generated code, an even one is declined and zero is a 503. Each call is delayed by a
+ * log-normal sample fitted to {@code latencyMedian} and {@code latencyP99}; equal values give a
+ * fixed delay, and a zero median none. On top of the card rules, {@code failureRate} of calls get
+ * a 503 and {@code dropRate} are closed without an answer. A non-zero {@code seed} makes the
+ * sequence of delays, failures and authorization codes repeatable for a single caller.
+ */
+public class BankSimulator implements AutoCloseable {
+
+  // z-score of the 99th percentile of the standard normal distribution.
+  private static final double Z_99 = 2.326;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final ObjectMapper objectMapper;
+  private final boolean delayed;
+  private final double mu;
+  private final double sigma;
+  private final double failureRate;
+  private final double dropRate;
+  private final Random seeded;
+
+  public BankSimulator(ObjectMapper objectMapper, Settings settings) throws IOException {
+    this.objectMapper = objectMapper;
+    this.delayed = !settings.latencyMedian().isZero();
+    this.mu = Math.log(Math.max(1, settings.latencyMedian().toNanos()));
+    this.sigma = Math.log(Math.max(1, settings.latencyP99().toNanos()) / Math.exp(mu)) / Z_99;
+    this.failureRate = settings.failureRate();
+    this.dropRate = settings.dropRate();
+    this.seeded = settings.seed() == 0 ? null : new Random(settings.seed());
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    this.server = HttpServer.create(new InetSocketAddress("localhost", settings.port()), 1024);
+    server.setExecutor(executor);
+    server.createContext("/payments", this::handle);
+    server.start();
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  public String url() {
+    return "http://localhost:" + port() + "/payments";
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      if (delayed) {
+        Thread.sleep(Duration.ofNanos(sampleLatencyNanos()));
+      }
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        respond(exchange, 404, Map.of("error_message", "Not found"));
+        return;
+      }
+      if (random().nextDouble() < dropRate) {
+        return;
+      }
+      if (random().nextDouble() < failureRate) {
+        exchange.sendResponseHeaders(503, -1);
+        return;
+      }
+      if (exchange.getRequestURI().getPath().equals("/payments/batch")) {
+        authorizeBatch(exchange, body);
+      } else {
+        authorize(exchange, body);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void authorize(HttpExchange exchange, byte[] body) throws IOException {
+    BankPaymentRequest request = parse(body, BankPaymentRequest.class);
+    if (request == null || !isComplete(request)) {
+      respond(exchange, 400,
+          Map.of("error_message", "Not all required properties were sent in the request"));
+    } else if (lastDigit(request) == 0) {
+      exchange.sendResponseHeaders(503, -1);
+    } else {
+      respond(exchange, 200, decide(request));
+    }
+  }
+
+  private void authorizeBatch(HttpExchange exchange, byte[] body) throws IOException {
+    BankPaymentRequest[] requests = parse(body, BankPaymentRequest[].class);
+    if (requests == null) {
+      respond(exchange, 400, Map.of("error_message", "Malformed batch"));
+      return;
+    }
+    List<BankBatchItemResponse> items = new ArrayList<>(requests.length);
+    for (BankPaymentRequest request : requests) {
+      if (request == null || !isComplete(request)) {
+        items.add(new BankBatchItemResponse(false, null,
+            "Not all required properties were sent in the request"));
+      } else if (lastDigit(request) == 0) {
+        items.add(new BankBatchItemResponse(false, null, "Bank service is unavailable"));
+      } else {
+        BankPaymentResponse response = decide(request);
+        items.add(new BankBatchItemResponse(response.authorized(), response.authorizationCode(),
+            null));
+      }
+    }
+    respond(exchange, 200, items);
+  }
+
+  private BankPaymentResponse decide(BankPaymentRequest request) {
+    if (lastDigit(request) % 2 == 0) {
+      return new BankPaymentResponse(false, "");
+    }
+    Random random = random();
+    UUID authorizationCode = new UUID(random.nextLong(), random.nextLong());
+    return new BankPaymentResponse(true, authorizationCode.toString());
+  }
+
+  private long sampleLatencyNanos() {
+    return (long) Math.exp(mu + sigma * random().nextGaussian());
+  }
+
+  private Random random() {
+    return seeded != null ? seeded : ThreadLocalRandom.current();
+  }
+
+  private <T> T parse(byte[] body, Class<T> type) {
+    try {
+      return objectMapper.readValue(body, type);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+    byte[] bytes = objectMapper.writeValueAsBytes(body);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+  }
+
+  private static boolean isComplete(BankPaymentRequest request) {
+    String cardNumber = request.cardNumber();
+    return cardNumber != null && !cardNumber.isEmpty()
+        && Character.isDigit(cardNumber.charAt(cardNumber.length() - 1))
+        && request.expiryDate() != null && request.currency() != null && request.cvv() != null;
+  }
+
+  private static int lastDigit(BankPaymentRequest request) {
+    String cardNumber = request.cardNumber();
+    return Character.digit(cardNumber.charAt(cardNumber.length() - 1), 10);
+  }
+
+  /**
+   * Simulator behaviour. A {@code port} of zero picks a free port, and a {@code seed} of zero
+   * draws from an unseeded source.
+   */
+  public record Settings(int port, Duration latencyMedian, Duration latencyP99,
+                         double failureRate, double dropRate, long seed) {
+
+    public Settings {
+      if (latencyP99.compareTo(latencyMedian) < 0) {
+        throw new IllegalArgumentException("latencyP99 must not be below latencyMedian");
+      }
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankBatchItemResponse;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coalesces concurrent authorizations into calls to the bank's batch endpoint. A batch is sent as
+ * soon as it holds {@code maxBatchSize} requests or {@code window} has passed since its first
+ * request arrived. The bank answers with one item per request, in order, and an item carrying an
+ * error message fails only its own caller.
+ *
+ * <p>Each batch goes through the {@link BankCallGuard} as a single call, so the circuit breaker
+ * and concurrency limit see batches the way they see single calls. A batch gets the latency budget
+ * of its oldest request, and a 503 or connection failure is retried within it like a single call.
+ * The outcome of every payment in the batch is recorded in {@code bank.calls}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "bank.batch.enabled", havingValue = "true")
+public class BatchingBankClient implements AsyncBankClient, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BatchingBankClient.class);
+  private static final long IDLE_POLL_MILLIS = 100;
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final URI batchUri;
+  private final Duration requestTimeout;
+  private final BankCallGuard callGuard;
+  private final PaymentMetrics metrics;
+  private final int maxBatchSize;
+  private final long windowNanos;
+  private final int maxAttempts;
+  private final long retryBaseDelayNanos;
+  private final long latencyBudgetNanos;
+  private final BlockingQueue<PendingAuthorization> queue;
+  private final Thread flusher;
+  private volatile boolean running = true;
+
+  public BatchingBankClient(HttpClient bankHttpClient, ObjectMapper objectMapper,
+      @Value("${bank.batch.url:http://localhost:8080/payments/batch}") String batchUrl,
+      @Value("${bank.client.request-timeout:PT10S}") Duration requestTimeout,
+      @Value("${bank.batch.max-size:64}") int maxBatchSize,
+      @Value("${bank.batch.window:PT0.002S}") Duration window,
+      @Value("${bank.batch.queue-capacity:10000}") int queueCapacity,
+      BankCallGuard callGuard, PaymentMetrics metrics,
+      @Value("${bank.client.retry.max-attempts:3}") int maxAttempts,
+      @Value("${bank.client.retry.base-delay:PT0.05S}") Duration retryBaseDelay,
+      @Value("${bank.client.latency-budget:PT10S}") Duration latencyBudget) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("maxBatchSize must be positive");
+    }
+    if (maxAttempts <= 0) {
+      throw new IllegalArgumentException("maxAttempts must be positive");
+    }
+    this.httpClient = bankHttpClient;
+    this.objectMapper = objectMapper;
+    this.batchUri = URI.create(batchUrl);
+    this.requestTimeout = requestTimeout;
+    this.callGuard = callGuard;
+    this.metrics = metrics;
+    this.maxBatchSize = maxBatchSize;
+    this.windowNanos = window.toNanos();
+    this.maxAttempts = maxAttempts;
+    this.retryBaseDelayNanos = retryBaseDelay.toNanos();
+    this.latencyBudgetNanos = latencyBudget.toNanos();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.flusher = new Thread(this::flushLoop, "bank-batch-flusher");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  @Override
+  public CompletableFuture<BankPaymentResponse> processPayment(PostPaymentRequest request) {
+    CompletableFuture<BankPaymentResponse> result = new CompletableFuture<>();
+    if (!running) {
+      result.completeExceptionally(new BankServiceException("Bank batch client is closed"));
+    } else if (!queue.offer(new PendingAuthorization(BankHttp.createBankRequest(request),
+        System.nanoTime() + latencyBudgetNanos, result))) {
+      BankCallRejectedException rejection =
+          new BankCallRejectedException("Bank batch queue is full");
+      metrics.recordBankCall(null, rejection, 0);
+      result.completeExceptionally(rejection);
+    }
+    return result;
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    running = false;
+    flusher.join();
+    List<PendingAuthorization> abandoned = new ArrayList<>();
+    queue.drainTo(abandoned);
+    for (PendingAuthorization pending : abandoned) {
+      pending.result().completeExceptionally(
+          new BankServiceException("Bank batch client is closed"));
+    }
+  }
+
+  private void flushLoop() {
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingAuthorization first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          send(collectBatch(first));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        LOG.error("Bank batch flush failed", e);
+      }
+    }
+  }
+
+  private List<PendingAuthorization> collectBatch(PendingAuthorization first)
+      throws InterruptedException {
+    List<PendingAuthorization> batch = new ArrayList<>(maxBatchSize);
+    batch.add(first);
+    long deadline = System.nanoTime() + windowNanos;
+    while (batch.size() < maxBatchSize) {
+      queue.drainTo(batch, maxBatchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() == maxBatchSize || remaining <= 0) {
+        break;
+      }
+      PendingAuthorization next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+    return batch;
+  }
+
+  private void send(List<PendingAuthorization> batch) {
+    List<BankPaymentRequest> requests = new ArrayList<>(batch.size());
+    for (PendingAuthorization pending : batch) {
+      requests.add(pending.request());
+    }
+    byte[] body;
+    try {
+      body = objectMapper.writeValueAsBytes(requests);
+    } catch (IOException e) {
+      fail(batch, new BankServiceException("Bank service error", e), 0);
+      return;
+    }
+    // The first request is the oldest, so its deadline is the batch's.
+    attempt(batch, body, batch.get(0).deadlineNanos(), 1);
+  }
+
+  private void attempt(List<PendingAuthorization> batch, byte[] body, long deadlineNanos,
+      int attempt) {
+    long start = System.nanoTime();
+    callGuard.callBatchAsync(() -> post(body, batch.size(), deadlineNanos))
+        .whenComplete((items, error) -> {
+          long duration = System.nanoTime() - start;
+          if (error == null) {
+            complete(batch, items, duration);
+            return;
+          }
+          Throwable cause = error instanceof CompletionException && error.getCause() != null
+              ? error.getCause() : error;
+          long backoff = retryBaseDelayNanos << (attempt - 1);
+          long delay = ThreadLocalRandom.current().nextLong(backoff + 1);
+          if (attempt < maxAttempts && cause instanceof BankUnavailableException
+              && deadlineNanos - System.nanoTime() > delay) {
+            metrics.recordBankRetry();
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)
+                .execute(() -> attempt(batch, body, deadlineNanos, attempt + 1));
+          } else {
+            fail(batch, cause, duration);
+          }
+        });
+  }
+
+  private CompletableFuture<BankBatchItemResponse[]> post(byte[] body, int size,
+      long deadlineNanos) {
+    HttpRequest httpRequest = BankHttp.post(batchUri, body, requestTimeout, deadlineNanos).build();
+    return BankHttp.send(httpClient, httpRequest, response -> toItems(response, size));
+  }
+
+  private BankBatchItemResponse[] toItems(HttpResponse<byte[]> response, int size) {
+    BankBatchItemResponse[] items =
+        BankHttp.read(objectMapper, response, BankBatchItemResponse[].class);
+    if (items.length != size) {
+      throw new CompletionException(new BankServiceException(
+          "Bank returned " + items.length + " results for " + size + " requests"));
+    }
+    return items;
+  }
+
+  private void complete(List<PendingAuthorization> batch, BankBatchItemResponse[] items,
+      long durationNanos) {
+    for (int i = 0; i < items.length; i++) {
+      BankBatchItemResponse item = items[i];
+      if (item.errorMessage() != null) {
+        BankServiceException error = new BankServiceException(item.errorMessage());
+        metrics.recordBankCall(null, error, durationNanos);
+        batch.get(i).result().completeExceptionally(error);
+      } else {
+        BankPaymentResponse response =
+            new BankPaymentResponse(item.authorized(), item.authorizationCode());
+        metrics.recordBankCall(response, null, durationNanos);
+        batch.get(i).result().complete(response);
+      }
+    }
+  }
+
+  private void fail(List<PendingAuthorization> batch, Throwable error, long durationNanos) {
+    for (PendingAuthorization pending : batch) {
+      metrics.recordBankCall(null, error, durationNanos);
+      pending.result().completeExceptionally(error);
+    }
+  }
+
+  private record PendingAuthorization(
+      BankPaymentRequest request,
+      long deadlineNanos,
+      CompletableFuture<BankPaymentResponse> result
+  ) {}
+}
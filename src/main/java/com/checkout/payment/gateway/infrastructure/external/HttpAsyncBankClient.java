@@ -0,0 +1,171 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends each authorization to the bank with its own HTTP call. A payment gets
+ * {@code latencyBudget} in total: a 503 or connection failure is retried after a jittered
+ * exponential backoff while the budget and {@code maxAttempts} allow. With hedging enabled, a
+ * second copy of an attempt is sent once it has been outstanding for the p95 of recent bank
+ * answers, or for {@code hedgeDelay} if that is longer, and the first success wins. Every copy
+ * carries the payment's {@code Idempotency-Key}, so hedging is only safe against a bank that
+ * deduplicates on it.
+ */
+@Service
+public class HttpAsyncBankClient implements AsyncBankClient {
+
+  static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final URI bankApiUri;
+  private final Duration requestTimeout;
+  private final BankCallGuard callGuard;
+  private final PaymentMetrics metrics;
+  private final int maxAttempts;
+  private final long retryBaseDelayNanos;
+  private final long latencyBudgetNanos;
+  private final boolean hedging;
+  private final long hedgeDelayNanos;
+  private final RollingPercentile latencyP95 = new RollingPercentile(0.95);
+
+  public HttpAsyncBankClient(HttpClient bankHttpClient, ObjectMapper objectMapper,
+      @Value("${bank.api.url:http://localhost:8080/payments}") String bankApiUrl,
+      @Value("${bank.client.request-timeout:PT10S}") Duration requestTimeout,
+      BankCallGuard callGuard, PaymentMetrics metrics,
+      @Value("${bank.client.retry.max-attempts:3}") int maxAttempts,
+      @Value("${bank.client.retry.base-delay:PT0.05S}") Duration retryBaseDelay,
+      @Value("${bank.client.latency-budget:PT10S}") Duration latencyBudget,
+      @Value("${bank.client.hedging.enabled:false}") boolean hedging,
+      @Value("${bank.client.hedging.delay:PT0.2S}") Duration hedgeDelay) {
+    if (maxAttempts <= 0) {
+      throw new IllegalArgumentException("maxAttempts must be positive");
+    }
+    this.httpClient = bankHttpClient;
+    this.objectMapper = objectMapper;
+    this.bankApiUri = URI.create(bankApiUrl);
+    this.requestTimeout = requestTimeout;
+    this.callGuard = callGuard;
+    this.metrics = metrics;
+    this.maxAttempts = maxAttempts;
+    this.retryBaseDelayNanos = retryBaseDelay.toNanos();
+    this.latencyBudgetNanos = latencyBudget.toNanos();
+    this.hedging = hedging;
+    this.hedgeDelayNanos = hedgeDelay.toNanos();
+  }
+
+  @Override
+  public CompletableFuture<BankPaymentResponse> processPayment(PostPaymentRequest request) {
+    byte[] body;
+    try {
+      body = objectMapper.writeValueAsBytes(BankHttp.createBankRequest(request));
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(new BankServiceException("Bank service error", e));
+    }
+    Call call = new Call(body, UUID.randomUUID().toString(),
+        System.nanoTime() + latencyBudgetNanos);
+    return attempt(call, 1);
+  }
+
+  private CompletableFuture<BankPaymentResponse> attempt(Call call, int attempt) {
+    CompletableFuture<BankPaymentResponse> response = hedging ? hedged(call) : guardedSend(call);
+    return response.exceptionallyCompose(error -> {
+      long backoff = retryBaseDelayNanos << (attempt - 1);
+      long delay = ThreadLocalRandom.current().nextLong(backoff + 1);
+      if (attempt >= maxAttempts || !isRetryable(error) || call.remainingNanos() <= delay) {
+        return CompletableFuture.failedFuture(error);
+      }
+      metrics.recordBankRetry();
+      return CompletableFuture.runAsync(() -> { },
+              CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS))
+          .thenCompose(ignored -> attempt(call, attempt + 1));
+    });
+  }
+
+  private CompletableFuture<BankPaymentResponse> hedged(Call call) {
+    CompletableFuture<BankPaymentResponse> result = new CompletableFuture<>();
+    AtomicInteger outstanding = new AtomicInteger(1);
+    guardedSend(call).whenComplete((response, error) ->
+        settle(result, outstanding, response, error, false));
+
+    long delay = Math.max(hedgeDelayNanos, latencyP95.get());
+    CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+      if (result.isDone() || call.remainingNanos() <= 0) {
+        return;
+      }
+      outstanding.incrementAndGet();
+      metrics.recordBankHedgeFired();
+      // The losing copy is left to finish so the guard can release its permit.
+      guardedSend(call).whenComplete((response, error) ->
+          settle(result, outstanding, response, error, true));
+    });
+    return result;
+  }
+
+  private void settle(CompletableFuture<BankPaymentResponse> result, AtomicInteger outstanding,
+      BankPaymentResponse response, Throwable error, boolean hedge) {
+    if (error == null) {
+      if (result.complete(response) && hedge) {
+        metrics.recordBankHedgeWon();
+      }
+    } else if (outstanding.decrementAndGet() == 0) {
+      result.completeExceptionally(error);
+    }
+  }
+
+  private CompletableFuture<BankPaymentResponse> guardedSend(Call call) {
+    return callGuard.callAsync(() -> send(call));
+  }
+
+  private CompletableFuture<BankPaymentResponse> send(Call call) {
+    HttpRequest httpRequest =
+        BankHttp.post(bankApiUri, call.body(), requestTimeout, call.deadlineNanos())
+            .header(IDEMPOTENCY_KEY_HEADER, call.reference())
+            .build();
+    long start = System.nanoTime();
+    return BankHttp.send(httpClient, httpRequest, response -> {
+      // Any answer counts: hedging is about how long the bank takes to reply, not what it says.
+      latencyP95.record(System.nanoTime() - start);
+      return toBankResponse(response);
+    });
+  }
+
+  private BankPaymentResponse toBankResponse(HttpResponse<byte[]> response) {
+    if (response.statusCode() == 400) {
+      throw new CompletionException(new BankServiceException("Bad request from the client"));
+    }
+    return BankHttp.read(objectMapper, response, BankPaymentResponse.class);
+  }
+
+  private static boolean isRetryable(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    return cause instanceof BankUnavailableException;
+  }
+
+  private record Call(byte[] body, String reference, long deadlineNanos) {
+
+    long remainingNanos() {
+      return deadlineNanos - System.nanoTime();
+    }
+  }
+}
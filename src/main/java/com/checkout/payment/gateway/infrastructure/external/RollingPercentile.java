@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.infrastructure.external;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A percentile of the last {@value #WINDOW} samples. Samples go into a ring, and every
+ * {@value #REFRESH_INTERVAL} samples the percentile is recomputed from a sorted copy of it, so
+ * {@link #get} is a volatile read. Zero until the first recomputation.
+ */
+public final class RollingPercentile {
+
+  private static final int WINDOW = 1024;
+  private static final int REFRESH_INTERVAL = 64;
+
+  private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+  private final AtomicLong count = new AtomicLong();
+  private final double quantile;
+  private volatile long value;
+
+  public RollingPercentile(double quantile) {
+    if (quantile <= 0 || quantile > 1) {
+      throw new IllegalArgumentException("quantile must be in (0, 1]");
+    }
+    this.quantile = quantile;
+  }
+
+  public void record(long sample) {
+    long recorded = count.getAndIncrement();
+    samples.set((int) (recorded % WINDOW), sample);
+    if ((recorded + 1) % REFRESH_INTERVAL == 0) {
+      refresh((int) Math.min(recorded + 1, WINDOW));
+    }
+  }
+
+  public long get() {
+    return value;
+  }
+
+  private void refresh(int size) {
+    long[] sorted = new long[size];
+    for (int i = 0; i < size; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+    value = sorted[(int) Math.ceil(quantile * size) - 1];
+  }
+}
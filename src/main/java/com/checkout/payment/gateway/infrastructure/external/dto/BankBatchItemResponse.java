@@ -0,0 +1,9 @@
+package com.checkout.payment.gateway.infrastructure.external.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record BankBatchItemResponse(
+    boolean authorized,
+    @JsonProperty("authorization_code") String authorizationCode,
+    @JsonProperty("error_message") String errorMessage
+) {}
@@ -0,0 +1,192 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "bounded")
+public class BoundedInMemoryPaymentsRepository implements PaymentsRepository {
+
+  private final ConcurrentHashMap<UUID, Entry> payments = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<UUID, UUID> idsByAuthorizationCode = new ConcurrentHashMap<>();
+  private final CreationTimeIndex creationTimes = new CreationTimeIndex();
+  private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final List<Consumer<Payment>> removalListeners = new CopyOnWriteArrayList<>();
+  private final int maxSize;
+  private final long ttlMillis;
+  private final Clock clock;
+
+  @Autowired
+  public BoundedInMemoryPaymentsRepository(
+      @Value("${payments.repository.bounded.max-size:1000000}") int maxSize,
+      @Value("${payments.repository.bounded.ttl:PT24H}") Duration ttl) {
+    this(maxSize, ttl, Clock.systemUTC());
+  }
+
+  public BoundedInMemoryPaymentsRepository(int maxSize, Duration ttl, Clock clock) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("ttl must not be negative");
+    }
+    this.maxSize = maxSize;
+    this.ttlMillis = ttl.toMillis();
+    this.clock = clock;
+  }
+
+  @Override
+  public void add(Payment payment) {
+    long now = clock.millis();
+    // A zero ttl disables time-based expiry; the size bound still applies.
+    Entry entry = new Entry(payment, ttlMillis == 0 ? Long.MAX_VALUE : now + ttlMillis);
+    payments.put(payment.id(), entry);
+    if (payment.hasAuthorizationCode()) {
+      idsByAuthorizationCode.put(payment.authorizationCode(), payment.id());
+    }
+    creationTimes.add(payment.id());
+    insertionOrder.offer(entry);
+    expireOldest(now);
+    evictOverflow();
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    Entry entry = payments.get(id);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.isExpired(clock.millis())) {
+      if (payments.remove(id, entry)) {
+        onRemoval(entry.payment());
+        expirations.increment();
+      }
+      return Optional.empty();
+    }
+    return Optional.of(entry.payment());
+  }
+
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    long now = clock.millis();
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Entry entry = payments.get(id);
+      if (entry != null && !entry.isExpired(now)) {
+        found.put(id, entry.payment());
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    UUID id = idsByAuthorizationCode.get(authorizationCode);
+    if (id == null) {
+      return Optional.empty();
+    }
+    return get(id).filter(payment -> payment.hasAuthorizationCode(authorizationCode));
+  }
+
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    long now = clock.millis();
+    for (UUID id : creationTimes.between(from, to)) {
+      Entry entry = payments.get(id);
+      if (entry != null && !entry.isExpired(now)) {
+        action.accept(entry.payment());
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return payments.size();
+  }
+
+  /** Calls {@code listener} with every payment this store evicts or expires, once it is gone. */
+  public void addRemovalListener(Consumer<Payment> listener) {
+    removalListeners.add(listener);
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  public long expirationCount() {
+    return expirations.sum();
+  }
+
+  private void expireOldest(long now) {
+    Entry head;
+    while ((head = insertionOrder.peek()) != null && head.isExpired(now)) {
+      if (insertionOrder.remove(head) && payments.remove(head.payment().id(), head)) {
+        onRemoval(head.payment());
+        expirations.increment();
+      }
+    }
+  }
+
+  private void evictOverflow() {
+    while (payments.size() > maxSize) {
+      Entry eldest = insertionOrder.poll();
+      if (eldest == null) {
+        return;
+      }
+      if (payments.remove(eldest.payment().id(), eldest)) {
+        onRemoval(eldest.payment());
+        evictions.increment();
+      }
+    }
+  }
+
+  private void onRemoval(Payment payment) {
+    creationTimes.remove(payment.id(), payments);
+    if (payment.hasAuthorizationCode()) {
+      idsByAuthorizationCode.remove(payment.authorizationCode(), payment.id());
+    }
+    for (Consumer<Payment> listener : removalListeners) {
+      listener.accept(payment);
+    }
+  }
+
+  private static final class Entry {
+
+    private final Payment payment;
+    private final long expiresAtMillis;
+
+    Entry(Payment payment, long expiresAtMillis) {
+      this.payment = payment;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+
+    Payment payment() {
+      return payment;
+    }
+
+    boolean isExpired(long now) {
+      return now >= expiresAtMillis;
+    }
+  }
+}
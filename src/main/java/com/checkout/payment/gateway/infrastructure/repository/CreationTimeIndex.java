@@ -0,0 +1,44 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The time-ordered ids of a store in creation order, for stores with no other index on creation
+ * time. Version 7 ids sort by their timestamp first, so a creation-time range is a slice of the
+ * set that costs one lookup plus the ids in it. Ids of any other version are never added.
+ */
+final class CreationTimeIndex {
+
+  private final NavigableSet<UUID> ids = new ConcurrentSkipListSet<>();
+
+  /** Called after the store has taken the payment, so a concurrent removal cannot hide it. */
+  void add(UUID id) {
+    if (PaymentIdGenerator.isTimeOrdered(id)) {
+      ids.add(id);
+    }
+  }
+
+  /**
+   * Drops an id just removed from {@code store}, keeping it when a concurrent add has already put
+   * it back.
+   */
+  void remove(UUID id, Map<UUID, ?> store) {
+    if (ids.remove(id) && store.containsKey(id)) {
+      ids.add(id);
+    }
+  }
+
+  /** A live view of the ids created in {@code [from, to)}, oldest first. */
+  NavigableSet<UUID> between(Instant from, Instant to) {
+    UUID lower = PaymentIdGenerator.lowerBound(from);
+    UUID upper = PaymentIdGenerator.lowerBound(to);
+    return lower.compareTo(upper) < 0 ? ids.subSet(lower, true, upper, false)
+        : Collections.emptyNavigableSet();
+  }
+}
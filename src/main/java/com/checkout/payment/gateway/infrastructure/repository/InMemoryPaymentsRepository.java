@@ -2,19 +2,33 @@ package com.checkout.payment.gateway.infrastructure.repository;
 
 import com.checkout.payment.gateway.domain.Payment;
 import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
-import java.util.HashMap;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "in-memory",
+    matchIfMissing = true)
 public class InMemoryPaymentsRepository implements PaymentsRepository {
 
-  private final HashMap<UUID, Payment> payments = new HashMap<>();
+  private final Map<UUID, Payment> payments = new ConcurrentHashMap<>();
+  private final Map<UUID, UUID> idsByAuthorizationCode = new ConcurrentHashMap<>();
+  private final CreationTimeIndex creationTimes = new CreationTimeIndex();
 
   @Override
   public void add(Payment payment) {
     payments.put(payment.id(), payment);
+    if (payment.hasAuthorizationCode()) {
+      idsByAuthorizationCode.put(payment.authorizationCode(), payment.id());
+    }
+    creationTimes.add(payment.id());
   }
 
   @Override
@@ -22,4 +36,40 @@ public class InMemoryPaymentsRepository implements PaymentsRepository {
     return Optional.ofNullable(payments.get(id));
   }
 
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Payment payment = payments.get(id);
+      if (payment != null) {
+        found.put(id, payment);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    UUID id = idsByAuthorizationCode.get(authorizationCode);
+    Payment payment = id == null ? null : payments.get(id);
+    // A payment re-added under a new code leaves its old index entry behind.
+    return payment != null && payment.hasAuthorizationCode(authorizationCode)
+        ? Optional.of(payment) : Optional.empty();
+  }
+
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    for (UUID id : creationTimes.between(from, to)) {
+      Payment payment = payments.get(id);
+      if (payment != null) {
+        action.accept(payment);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return payments.size();
+  }
+
 }
@@ -0,0 +1,291 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.repository.PaymentCursor;
+import com.checkout.payment.gateway.domain.repository.PaymentPage;
+import com.checkout.payment.gateway.domain.repository.PaymentSearchCriteria;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps secondary indexes on status, currency and card last four in front of any
+ * {@link PaymentsRepository}, so that {@link #search} does not scan the store. Every index is a
+ * skip list keyed by the payment's creation time, with a sequence in the low bits to keep keys
+ * unique. Payments whose ids are not time-ordered have no creation time and are keyed by the time
+ * they were first stored instead. A page seeks to the cursor, or to the end of the time range,
+ * and walks one index backwards: the most selective one the criteria name. Payments from that
+ * index that fail the other filters are skipped, so the work per page grows with the page size and
+ * with how selective those filters are, not with the size of the store.
+ *
+ * <p>Payments the store already holds are indexed on construction, streamed oldest first from
+ * {@link PaymentsRepository#forEachCreatedBetween}; those without time-ordered ids are not. A
+ * payment that a {@link BoundedInMemoryPaymentsRepository} evicts or expires is dropped from the
+ * indexes as it goes, so they hold no more payments than the store. Payments the store no longer
+ * returns do not count toward a page.
+ */
+public class IndexedPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private static final int SEQUENCE_BITS = 20;
+  private static final int BATCH_SIZE = 256;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+  private static final long MAX_KEY_MILLIS = Long.MAX_VALUE >> SEQUENCE_BITS;
+
+  private final PaymentsRepository delegate;
+  private final Clock clock;
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<Long, UUID> all = new ConcurrentSkipListMap<>();
+  private final Map<PaymentStatus, ConcurrentNavigableMap<Long, UUID>> byStatus =
+      new EnumMap<>(PaymentStatus.class);
+  private final Map<String, ConcurrentNavigableMap<Long, UUID>> byCurrency =
+      new ConcurrentHashMap<>();
+  private final Map<String, ConcurrentNavigableMap<Long, UUID>> byCardNumberLastFour =
+      new ConcurrentHashMap<>();
+
+  public IndexedPaymentsRepository(PaymentsRepository delegate) {
+    this(delegate, Clock.systemUTC());
+  }
+
+  public IndexedPaymentsRepository(PaymentsRepository delegate, Clock clock) {
+    this.delegate = delegate;
+    this.clock = clock;
+    for (PaymentStatus status : PaymentStatus.values()) {
+      byStatus.put(status, new ConcurrentSkipListMap<>());
+    }
+    delegate.unwrap(BoundedInMemoryPaymentsRepository.class)
+        .ifPresent(bounded -> bounded.addRemovalListener(payment -> unindex(payment.id())));
+    delegate.forEachCreatedBetween(Instant.MIN, Instant.MAX, this::index);
+  }
+
+  @Override
+  public void add(Payment payment) {
+    delegate.add(payment);
+    index(payment);
+  }
+
+  @Override
+  public void addAll(Collection<Payment> payments) {
+    delegate.addAll(payments);
+    payments.forEach(this::index);
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    return delegate.get(id);
+  }
+
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    return delegate.getAll(ids);
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    return delegate.findByAuthorizationCode(authorizationCode);
+  }
+
+  @Override
+  public List<Payment> findMostRecent(int limit) {
+    return delegate.findMostRecent(limit);
+  }
+
+  /** The cursor holds the index key of the last payment on the previous page. */
+  @Override
+  public PaymentPage search(PaymentSearchCriteria criteria, PaymentCursor cursor, int limit) {
+    ConcurrentNavigableMap<Long, UUID> index = mostSelectiveIndex(criteria);
+    if (index == null) {
+      return new PaymentPage(List.of(), null);
+    }
+    long upper = criteria.to() == null ? Long.MAX_VALUE : keyBound(criteria.to());
+    if (cursor != null) {
+      upper = Math.min(upper, cursor.key());
+    }
+    long lower = criteria.from() == null ? Long.MIN_VALUE : keyBound(criteria.from());
+    if (lower >= upper) {
+      return new PaymentPage(List.of(), null);
+    }
+
+    Iterator<Map.Entry<Long, UUID>> postings =
+        index.subMap(lower, true, upper, false).descendingMap().entrySet().iterator();
+    // One more than the page, to tell whether there is a next page.
+    List<Payment> payments = new ArrayList<>(limit + 1);
+    List<Long> keys = new ArrayList<>(limit + 1);
+    while (payments.size() <= limit && postings.hasNext()) {
+      int wanted = limit + 1 - payments.size();
+      List<UUID> ids = new ArrayList<>(wanted);
+      List<Entry> matched = new ArrayList<>(wanted);
+      while (ids.size() < wanted && postings.hasNext()) {
+        Map.Entry<Long, UUID> posting = postings.next();
+        Entry entry = entries.get(posting.getValue());
+        // Postings can briefly outlive a concurrent update or removal; the entry is what counts.
+        if (entry != null && entry.key() == posting.getKey() && entry.matches(criteria)) {
+          ids.add(posting.getValue());
+          matched.add(entry);
+        }
+      }
+
+      Map<UUID, Payment> stored = delegate.getAll(ids);
+      for (int i = 0; i < ids.size(); i++) {
+        Payment payment = stored.get(ids.get(i));
+        if (payment == null) {
+          // Expired but not yet swept by the store, or gone from it some other way.
+          unindex(ids.get(i), matched.get(i));
+        } else {
+          payments.add(payment);
+          keys.add(matched.get(i).key());
+        }
+      }
+    }
+
+    if (payments.size() <= limit) {
+      return new PaymentPage(payments, null);
+    }
+    payments.remove(limit);
+    return new PaymentPage(payments, new PaymentCursor(keys.get(limit - 1)));
+  }
+
+  /** Walks the creation-time index, reading the store in batches. */
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    long lower = keyBound(from);
+    long upper = keyBound(to);
+    if (lower >= upper) {
+      return;
+    }
+    List<UUID> batch = new ArrayList<>(BATCH_SIZE);
+    for (UUID id : all.subMap(lower, true, upper, false).values()) {
+      if (PaymentIdGenerator.isTimeOrdered(id)) {
+        batch.add(id);
+        if (batch.size() == BATCH_SIZE) {
+          delegate.getAll(batch).values().forEach(action);
+          batch.clear();
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      delegate.getAll(batch).values().forEach(action);
+    }
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  /** Payments currently held in the indexes. */
+  public int indexedCount() {
+    return entries.size();
+  }
+
+  @Override
+  public <T> Optional<T> unwrap(Class<T> type) {
+    return type.isInstance(this) ? Optional.of(type.cast(this)) : delegate.unwrap(type);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  private void index(Payment payment) {
+    entries.compute(payment.id(), (id, previous) -> {
+      long key;
+      if (previous == null) {
+        Instant createdAt = payment.createdAt();
+        long millis = createdAt != null ? createdAt.toEpochMilli() : clock.millis();
+        key = millis << SEQUENCE_BITS | sequence.getAndIncrement() & SEQUENCE_MASK;
+      } else {
+        key = previous.key();
+        unpost(id, previous);
+      }
+      Entry entry = new Entry(key, payment.status(), payment.currency(),
+          payment.cardNumberLastFour());
+      all.put(key, id);
+      byStatus.get(entry.status()).put(key, id);
+      byCurrency.computeIfAbsent(entry.currency(), currency -> new ConcurrentSkipListMap<>())
+          .put(key, id);
+      byCardNumberLastFour.computeIfAbsent(entry.cardNumberLastFour(),
+          lastFour -> new ConcurrentSkipListMap<>()).put(key, id);
+      return entry;
+    });
+  }
+
+  private void unindex(UUID id) {
+    Entry entry = entries.remove(id);
+    if (entry != null) {
+      unpost(id, entry);
+    }
+  }
+
+  private void unindex(UUID id, Entry expected) {
+    entries.computeIfPresent(id, (ignored, entry) -> {
+      if (entry != expected) {
+        return entry;
+      }
+      unpost(id, entry);
+      return null;
+    });
+  }
+
+  private void unpost(UUID id, Entry entry) {
+    all.remove(entry.key(), id);
+    byStatus.get(entry.status()).remove(entry.key(), id);
+    byCurrency.get(entry.currency()).remove(entry.key(), id);
+    byCardNumberLastFour.get(entry.cardNumberLastFour()).remove(entry.key(), id);
+  }
+
+  /** The index to walk, or null when a named value has never been stored. */
+  private ConcurrentNavigableMap<Long, UUID> mostSelectiveIndex(PaymentSearchCriteria criteria) {
+    if (criteria.cardNumberLastFour() != null) {
+      return byCardNumberLastFour.get(criteria.cardNumberLastFour());
+    }
+    if (criteria.currency() != null) {
+      return byCurrency.get(criteria.currency());
+    }
+    if (criteria.status() != null) {
+      return byStatus.get(criteria.status());
+    }
+    return all;
+  }
+
+  private static long keyBound(Instant instant) {
+    long seconds = instant.getEpochSecond();
+    if (seconds >= MAX_KEY_MILLIS / 1000) {
+      return Long.MAX_VALUE;
+    }
+    if (seconds <= -MAX_KEY_MILLIS / 1000) {
+      return Long.MIN_VALUE;
+    }
+    long millis = seconds * 1000 + Math.ceilDiv(instant.getNano(), 1_000_000);
+    return millis << SEQUENCE_BITS;
+  }
+
+  private record Entry(long key, PaymentStatus status, String currency,
+      String cardNumberLastFour) {
+
+    boolean matches(PaymentSearchCriteria criteria) {
+      return (criteria.status() == null || criteria.status() == status)
+          && (criteria.currency() == null || criteria.currency().equals(currency))
+          && (criteria.cardNumberLastFour() == null
+              || criteria.cardNumberLastFour().equals(cardNumberLastFour));
+    }
+  }
+}
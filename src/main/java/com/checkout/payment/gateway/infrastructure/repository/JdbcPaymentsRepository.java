@@ -0,0 +1,414 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stores payments in a relational table keyed on the id's 16 raw bytes. The SQL targets H2.
+ *
+ * <p>Concurrent {@link #add(Payment)} calls are group-committed. Each caller queues its payment
+ * and whichever caller takes the write lock becomes the leader: it drains the queue and writes
+ * everything in one transaction, using multi-row {@code MERGE} statements of up to
+ * {@code maxBatchSize} rows. The other callers wait for their payment's transaction to commit.
+ * Writes go through one connection that stays checked out of the pool, so the prepared
+ * statements for each row count are reused. Reads borrow pooled connections.
+ */
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "jdbc")
+public class JdbcPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private static final int MAX_IN_LIST = 256;
+
+  private static final String COLUMNS = "id, status, card_number_last_four, expiry_month, "
+      + "expiry_year, currency, amount, authorization_code";
+  private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final int PARAMETERS_PER_ROW = 8;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private final DataSource dataSource;
+  private final HikariDataSource ownedPool;
+  private final int maxBatchSize;
+  private final Queue<PendingInsert> pendingInserts = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final Map<Integer, PreparedStatement> mergeStatements = new HashMap<>();
+  private Connection writeConnection;
+
+  @Autowired
+  public JdbcPaymentsRepository(
+      @Value("${payments.repository.jdbc.url:jdbc:h2:mem:payments;DB_CLOSE_DELAY=-1}") String url,
+      @Value("${payments.repository.jdbc.username:sa}") String username,
+      @Value("${payments.repository.jdbc.password:}") String password,
+      @Value("${payments.repository.jdbc.pool-size:10}") int poolSize,
+      @Value("${payments.repository.jdbc.max-batch-size:256}") int maxBatchSize) {
+    this(createPool(url, username, password, poolSize), maxBatchSize, true);
+  }
+
+  public JdbcPaymentsRepository(DataSource dataSource, int maxBatchSize) {
+    this(dataSource, maxBatchSize, false);
+  }
+
+  private JdbcPaymentsRepository(DataSource dataSource, int maxBatchSize, boolean ownsPool) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("maxBatchSize must be positive");
+    }
+    this.dataSource = dataSource;
+    this.ownedPool = ownsPool ? (HikariDataSource) dataSource : null;
+    this.maxBatchSize = maxBatchSize;
+    try {
+      createSchema();
+    } catch (SQLException e) {
+      close();
+      throw new IllegalStateException("Failed to create the payments schema", e);
+    }
+  }
+
+  @Override
+  public void add(Payment payment) {
+    PendingInsert insert = new PendingInsert(payment, new CompletableFuture<>());
+    pendingInserts.add(insert);
+    // A failed tryLock means a leader holds the lock; it rechecks the queue after unlocking, so
+    // it or a later leader is bound to write this payment.
+    while (writeLock.tryLock()) {
+      try {
+        writePending();
+      } finally {
+        writeLock.unlock();
+      }
+      if (pendingInserts.isEmpty()) {
+        break;
+      }
+    }
+    try {
+      insert.written().join();
+    } catch (CompletionException e) {
+      throw new IllegalStateException("Failed to store payment " + payment.id(), e.getCause());
+    }
+  }
+
+  @Override
+  public void addAll(Collection<Payment> payments) {
+    writeLock.lock();
+    try {
+      write(List.copyOf(payments));
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to store " + payments.size() + " payments", e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    return queryOne("SELECT " + COLUMNS + " FROM payments WHERE id = ?", id);
+  }
+
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    List<UUID> unique = List.copyOf(new LinkedHashSet<>(ids));
+    Map<UUID, Payment> byId = new HashMap<>();
+    try (Connection connection = dataSource.getConnection()) {
+      for (int from = 0; from < unique.size(); from += MAX_IN_LIST) {
+        List<UUID> chunk = unique.subList(from, Math.min(from + MAX_IN_LIST, unique.size()));
+        String sql = "SELECT " + COLUMNS + " FROM payments WHERE id IN ("
+            + "?, ".repeat(chunk.size() - 1) + "?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+          for (int i = 0; i < chunk.size(); i++) {
+            statement.setBytes(i + 1, toBytes(chunk.get(i)));
+          }
+          try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+              Payment payment = read(rows);
+              byId.put(payment.id(), payment);
+            }
+          }
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to look up " + unique.size() + " payments", e);
+    }
+
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Payment payment = byId.get(id);
+      if (payment != null) {
+        found.put(id, payment);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    return queryOne("SELECT " + COLUMNS + " FROM payments WHERE authorization_code = ?",
+        authorizationCode);
+  }
+
+  /** Newest first, by first insertion; the identity column is left alone when a row is merged. */
+  @Override
+  public List<Payment> findMostRecent(int limit) {
+    List<Payment> payments = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT " + COLUMNS + " FROM payments ORDER BY seq DESC LIMIT ?")) {
+      statement.setInt(1, limit);
+      try (ResultSet rows = statement.executeQuery()) {
+        while (rows.next()) {
+          payments.add(read(rows));
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to read recent payments", e);
+    }
+    return payments;
+  }
+
+  /**
+   * A range scan of the primary key: time-ordered ids sort by creation time as raw bytes. Only
+   * time-ordered ids are passed on; other ids have no creation time and may fall in the range.
+   */
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT " + COLUMNS + " FROM payments WHERE id >= ? AND id < ? ORDER BY id")) {
+      statement.setBytes(1, toBytes(PaymentIdGenerator.lowerBound(from)));
+      statement.setBytes(2, toBytes(PaymentIdGenerator.lowerBound(to)));
+      statement.setFetchSize(MAX_IN_LIST);
+      try (ResultSet rows = statement.executeQuery()) {
+        while (rows.next()) {
+          Payment payment = read(rows);
+          if (PaymentIdGenerator.isTimeOrdered(payment.id())) {
+            action.accept(payment);
+          }
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to read payments created between " + from
+          + " and " + to, e);
+    }
+  }
+
+  @Override
+  public int size() {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM payments")) {
+      rows.next();
+      return rows.getInt(1);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to count payments", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    writeLock.lock();
+    try {
+      closeWriteConnection();
+    } finally {
+      writeLock.unlock();
+    }
+    if (ownedPool != null) {
+      ownedPool.close();
+    }
+  }
+
+  private void writePending() {
+    List<PendingInsert> batch = new ArrayList<>();
+    PendingInsert insert;
+    while ((insert = pendingInserts.poll()) != null) {
+      batch.add(insert);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<Payment> payments = new ArrayList<>(batch.size());
+    for (PendingInsert pending : batch) {
+      payments.add(pending.payment());
+    }
+    try {
+      write(payments);
+      batch.forEach(pending -> pending.written().complete(null));
+    } catch (SQLException | RuntimeException e) {
+      batch.forEach(pending -> pending.written().completeExceptionally(e));
+    }
+  }
+
+  private void write(List<Payment> payments) throws SQLException {
+    if (payments.isEmpty()) {
+      return;
+    }
+    Connection connection = writeConnection();
+    try {
+      for (int from = 0; from < payments.size(); from += maxBatchSize) {
+        int rows = Math.min(maxBatchSize, payments.size() - from);
+        PreparedStatement statement = mergeStatement(connection, rows);
+        for (int row = 0; row < rows; row++) {
+          bind(statement, row * PARAMETERS_PER_ROW, payments.get(from + row));
+        }
+        statement.executeUpdate();
+      }
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      // The connection may be broken; start afresh with the next batch.
+      try {
+        connection.rollback();
+      } catch (SQLException rollbackFailure) {
+        e.addSuppressed(rollbackFailure);
+      }
+      closeWriteConnection();
+      throw e;
+    }
+  }
+
+  private Connection writeConnection() throws SQLException {
+    if (writeConnection == null) {
+      writeConnection = dataSource.getConnection();
+      writeConnection.setAutoCommit(false);
+    }
+    return writeConnection;
+  }
+
+  private PreparedStatement mergeStatement(Connection connection, int rows) throws SQLException {
+    PreparedStatement statement = mergeStatements.get(rows);
+    if (statement == null) {
+      statement = connection.prepareStatement("MERGE INTO payments (" + COLUMNS + ") KEY (id) "
+          + "VALUES " + (ROW + ", ").repeat(rows - 1) + ROW);
+      mergeStatements.put(rows, statement);
+    }
+    return statement;
+  }
+
+  private void closeWriteConnection() {
+    mergeStatements.clear();
+    if (writeConnection != null) {
+      try {
+        writeConnection.close();
+      } catch (SQLException e) {
+        // Closing also closes its statements; nothing more to release.
+      }
+      writeConnection = null;
+    }
+  }
+
+  private Optional<Payment> queryOne(String sql, UUID key) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setBytes(1, toBytes(key));
+      try (ResultSet rows = statement.executeQuery()) {
+        return rows.next() ? Optional.of(read(rows)) : Optional.empty();
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to read payment " + key, e);
+    }
+  }
+
+  private void createSchema() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("""
+          CREATE TABLE IF NOT EXISTS payments (
+            id BINARY(16) PRIMARY KEY,
+            status TINYINT NOT NULL,
+            card_number_last_four CHAR(4) NOT NULL,
+            expiry_month TINYINT NOT NULL,
+            expiry_year INT NOT NULL,
+            currency CHAR(3) NOT NULL,
+            amount INT NOT NULL,
+            authorization_code BINARY(16),
+            seq BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL
+          )""");
+      statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS payments_authorization_code "
+          + "ON payments (authorization_code)");
+      statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS payments_seq ON payments (seq)");
+    }
+  }
+
+  private static void bind(PreparedStatement statement, int offset, Payment payment)
+      throws SQLException {
+    statement.setBytes(offset + 1, toBytes(payment.id()));
+    statement.setByte(offset + 2, (byte) payment.status().ordinal());
+    statement.setString(offset + 3, payment.cardNumberLastFour());
+    statement.setByte(offset + 4, (byte) payment.expiryMonth());
+    statement.setInt(offset + 5, payment.expiryYear());
+    statement.setString(offset + 6, payment.currency());
+    statement.setInt(offset + 7, payment.amount());
+    if (payment.hasAuthorizationCode()) {
+      statement.setBytes(offset + 8, toBytes(payment.authorizationCodeMostSignificantBits(),
+          payment.authorizationCodeLeastSignificantBits()));
+    } else {
+      statement.setNull(offset + 8, Types.BINARY);
+    }
+  }
+
+  private static Payment read(ResultSet rows) throws SQLException {
+    ByteBuffer id = ByteBuffer.wrap(rows.getBytes(1));
+    byte[] code = rows.getBytes(8);
+    ByteBuffer authorizationCode = ByteBuffer.wrap(code == null ? new byte[16] : code);
+    return Payment.restore(
+        new UUID(id.getLong(), id.getLong()),
+        STATUSES[rows.getByte(2)],
+        rows.getString(3),
+        rows.getByte(4),
+        rows.getInt(5),
+        rows.getString(6),
+        rows.getInt(7),
+        authorizationCode.getLong(),
+        authorizationCode.getLong()
+    );
+  }
+
+  private static byte[] toBytes(UUID uuid) {
+    return toBytes(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  private static byte[] toBytes(long msb, long lsb) {
+    return ByteBuffer.allocate(16).putLong(msb).putLong(lsb).array();
+  }
+
+  private static HikariDataSource createPool(String url, String username, String password,
+      int poolSize) {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(url);
+    config.setUsername(username);
+    config.setPassword(password);
+    config.setMaximumPoolSize(poolSize);
+    config.setPoolName("payments-jdbc");
+    return new HikariDataSource(config);
+  }
+
+  private record PendingInsert(Payment payment, CompletableFuture<Void> written) {
+  }
+}
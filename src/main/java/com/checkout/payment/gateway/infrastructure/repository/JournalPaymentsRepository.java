@@ -0,0 +1,427 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Append-only payment journal made of fixed-size, memory-mapped segment files. Each entry is a
+ * {@link PaymentRecordCodec} record followed by a CRC32C checksum; the id to offset index lives on
+ * the heap and is rebuilt on startup by scanning the segments in order, stopping each scan at the
+ * first empty or torn record. Later entries for the same id win, which lets the background
+ * compactor copy live records out of mostly superseded segments and delete them. An authorization
+ * code to id index is rebuilt alongside it.
+ */
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "journal")
+public class JournalPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  public enum Durability {
+    ASYNC,
+    SYNC
+  }
+
+  static final int ENTRY_SIZE = 56;
+
+  private static final Logger LOG = LoggerFactory.getLogger(JournalPaymentsRepository.class);
+  private static final int CHECKSUM = PaymentRecordCodec.RECORD_SIZE;
+  private static final Pattern SEGMENT_NAME = Pattern.compile("segment-v2-(\\d{10})\\.dat");
+  // Segments from before authorization codes were stored use 40-byte entries.
+  private static final Pattern LEGACY_SEGMENT_NAME = Pattern.compile("segment-\\d{10}\\.dat");
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final Durability durability;
+  private final double compactionThreshold;
+  private final Map<UUID, Long> index = new ConcurrentHashMap<>();
+  private final Map<UUID, UUID> idsByAuthorizationCode = new ConcurrentHashMap<>();
+  private final CreationTimeIndex creationTimes = new CreationTimeIndex();
+  private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final CRC32C checksum = new CRC32C();
+  private final ScheduledExecutorService background;
+  private Segment active;
+  private CompletableFuture<Segment> nextSegment;
+
+  @Autowired
+  public JournalPaymentsRepository(
+      @Value("${payments.repository.journal.directory:data/payments-journal}") Path directory,
+      @Value("${payments.repository.journal.records-per-segment:1048576}") int recordsPerSegment,
+      @Value("${payments.repository.journal.durability:ASYNC}") Durability durability,
+      @Value("${payments.repository.journal.compaction-interval:PT1M}")
+      Duration compactionInterval,
+      @Value("${payments.repository.journal.compaction-threshold:0.5}")
+      double compactionThreshold) {
+    if (recordsPerSegment <= 0 || recordsPerSegment > Integer.MAX_VALUE / ENTRY_SIZE) {
+      throw new IllegalArgumentException("recordsPerSegment is out of range");
+    }
+    this.directory = directory;
+    this.segmentBytes = recordsPerSegment * ENTRY_SIZE;
+    this.durability = durability;
+    this.compactionThreshold = compactionThreshold;
+    this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "payments-journal");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    try {
+      Files.createDirectories(directory);
+      recover();
+    } catch (IOException e) {
+      background.shutdownNow();
+      throw new UncheckedIOException("Failed to open payments journal in " + directory, e);
+    } catch (RuntimeException e) {
+      background.shutdownNow();
+      throw e;
+    }
+
+    if (!compactionInterval.isZero()) {
+      long millis = compactionInterval.toMillis();
+      background.scheduleWithFixedDelay(this::compactQuietly, millis, millis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void add(Payment payment) {
+    writeLock.lock();
+    try {
+      append(payment, durability == Durability.SYNC);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /** Appends the batch under one lock acquisition and, in SYNC mode, a single force. */
+  @Override
+  public void addAll(Collection<Payment> payments) {
+    writeLock.lock();
+    try {
+      for (Payment payment : payments) {
+        append(payment, false);
+      }
+      if (durability == Durability.SYNC) {
+        active.buffer.force();
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    return Optional.ofNullable(find(id));
+  }
+
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Payment payment = find(id);
+      if (payment != null) {
+        found.put(id, payment);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    UUID id = idsByAuthorizationCode.get(authorizationCode);
+    Payment payment = id == null ? null : find(id);
+    return payment != null && payment.hasAuthorizationCode(authorizationCode)
+        ? Optional.of(payment) : Optional.empty();
+  }
+
+  /** Walks the segments backwards from the newest entry, skipping superseded records. */
+  @Override
+  public List<Payment> findMostRecent(int limit) {
+    List<Payment> payments = new ArrayList<>(Math.min(limit, index.size()));
+    writeLock.lock();
+    try {
+      for (Segment segment : segments.descendingMap().values()) {
+        for (int position = segment.position - ENTRY_SIZE;
+            position >= 0 && payments.size() < limit; position -= ENTRY_SIZE) {
+          Payment payment = PaymentRecordCodec.read(segment.buffer, position);
+          Long location = index.get(payment.id());
+          if (location != null && location == location(segment.id, position)) {
+            payments.add(payment);
+          }
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    return payments;
+  }
+
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    for (UUID id : creationTimes.between(from, to)) {
+      Payment payment = find(id);
+      if (payment != null) {
+        action.accept(payment);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return index.size();
+  }
+
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  public void compact() {
+    for (Segment segment : new ArrayList<>(segments.values())) {
+      if (segment != active && segment.isCompactable(compactionThreshold)) {
+        compact(segment);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    background.shutdownNow();
+    writeLock.lock();
+    try {
+      active.buffer.force();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private Payment find(UUID id) {
+    Long location = index.get(id);
+    while (location != null) {
+      Segment segment = segments.get(segmentId(location));
+      if (segment != null) {
+        return PaymentRecordCodec.read(segment.buffer, offset(location));
+      }
+      // The segment was compacted away after the lookup; the record now lives elsewhere.
+      Long moved = index.get(id);
+      location = location.equals(moved) ? null : moved;
+    }
+    return null;
+  }
+
+  private void append(Payment payment, boolean force) {
+    if (active.position == segmentBytes) {
+      // Entries appended without a force must be on disk before the segment is left behind.
+      if (durability == Durability.SYNC) {
+        active.buffer.force();
+      }
+      roll();
+    }
+    int position = active.position;
+    ByteBuffer buffer = active.buffer;
+    PaymentRecordCodec.write(buffer, position, payment);
+    buffer.putInt(position + CHECKSUM, checksumOf(buffer, position));
+    if (force) {
+      active.buffer.force(position, ENTRY_SIZE);
+    }
+    active.position = position + ENTRY_SIZE;
+    active.records++;
+    active.live.incrementAndGet();
+
+    Long previous = index.put(payment.id(), location(active.id, position));
+    if (payment.hasAuthorizationCode()) {
+      idsByAuthorizationCode.put(payment.authorizationCode(), payment.id());
+    }
+    creationTimes.add(payment.id());
+    if (previous != null) {
+      Segment superseded = segments.get(segmentId(previous));
+      if (superseded != null) {
+        superseded.live.decrementAndGet();
+      }
+    }
+  }
+
+  private void compact(Segment segment) {
+    writeLock.lock();
+    try {
+      if (segment == active) {
+        return;
+      }
+      for (int position = 0; position < segment.position; position += ENTRY_SIZE) {
+        Payment payment = PaymentRecordCodec.read(segment.buffer, position);
+        Long location = index.get(payment.id());
+        if (location != null && location == location(segment.id, position)) {
+          append(payment, durability == Durability.SYNC);
+        }
+      }
+      active.buffer.force();
+      segments.remove(segment.id);
+    } finally {
+      writeLock.unlock();
+    }
+
+    try {
+      Files.deleteIfExists(segmentPath(segment.id));
+    } catch (IOException e) {
+      LOG.warn("Failed to delete compacted journal segment {}", segment.id, e);
+    }
+  }
+
+  private void compactQuietly() {
+    try {
+      compact();
+    } catch (RuntimeException e) {
+      LOG.error("Payments journal compaction failed", e);
+    }
+  }
+
+  private void roll() {
+    active = nextSegment.join();
+    segments.put(active.id, active);
+    int followingId = active.id + 1;
+    nextSegment = CompletableFuture.supplyAsync(() -> openSegment(followingId), background);
+  }
+
+  private void recover() throws IOException {
+    List<Integer> ids = new ArrayList<>();
+    try (var files = Files.list(directory)) {
+      files.forEach(file -> {
+        String name = file.getFileName().toString();
+        if (LEGACY_SEGMENT_NAME.matcher(name).matches()) {
+          throw new IllegalStateException("Journal segment " + file + " uses the layout from "
+              + "before authorization codes were stored; drain or move it before starting");
+        }
+        Matcher matcher = SEGMENT_NAME.matcher(name);
+        if (matcher.matches()) {
+          ids.add(Integer.parseInt(matcher.group(1)));
+        }
+      });
+    }
+    ids.sort(null);
+
+    for (int id : ids) {
+      Segment segment = openSegment(id);
+      scan(segment);
+      segments.put(id, segment);
+      active = segment;
+    }
+    if (active == null) {
+      active = openSegment(0);
+      segments.put(active.id, active);
+    }
+    int followingId = active.id + 1;
+    nextSegment = CompletableFuture.supplyAsync(() -> openSegment(followingId), background);
+    LOG.info("Recovered {} payments from {} journal segments in {}", index.size(),
+        segments.size(), directory);
+  }
+
+  private void scan(Segment segment) {
+    ByteBuffer buffer = segment.buffer;
+    int position = 0;
+    while (position < segmentBytes
+        && PaymentRecordCodec.isOccupied(buffer, position)
+        && buffer.getInt(position + CHECKSUM) == checksumOf(buffer, position)) {
+      UUID id = new UUID(PaymentRecordCodec.idMostSignificantBits(buffer, position),
+          PaymentRecordCodec.idLeastSignificantBits(buffer, position));
+      Long previous = index.put(id, location(segment.id, position));
+      long codeMsb = PaymentRecordCodec.authorizationCodeMostSignificantBits(buffer, position);
+      long codeLsb = PaymentRecordCodec.authorizationCodeLeastSignificantBits(buffer, position);
+      if ((codeMsb | codeLsb) != 0) {
+        idsByAuthorizationCode.put(new UUID(codeMsb, codeLsb), id);
+      }
+      creationTimes.add(id);
+      if (previous != null) {
+        Segment superseded = segmentId(previous) == segment.id
+            ? segment : segments.get(segmentId(previous));
+        superseded.live.decrementAndGet();
+      }
+      segment.live.incrementAndGet();
+      segment.records++;
+      position += ENTRY_SIZE;
+    }
+    segment.position = position;
+  }
+
+  private Segment openSegment(int id) {
+    try (FileChannel channel = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+      return new Segment(id, buffer);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open journal segment " + id, e);
+    }
+  }
+
+  private Path segmentPath(int id) {
+    return directory.resolve(String.format("segment-v2-%010d.dat", id));
+  }
+
+  private int checksumOf(ByteBuffer buffer, int position) {
+    checksum.reset();
+    checksum.update(buffer.slice(position, PaymentRecordCodec.RECORD_SIZE));
+    return (int) checksum.getValue();
+  }
+
+  private static long location(int segmentId, int offset) {
+    return (long) segmentId << 32 | offset;
+  }
+
+  private static int segmentId(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static int offset(long location) {
+    return (int) location;
+  }
+
+  private static final class Segment {
+
+    private final int id;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger live = new AtomicInteger();
+    private int position;
+    private int records;
+
+    Segment(int id, MappedByteBuffer buffer) {
+      this.id = id;
+      this.buffer = buffer;
+    }
+
+    boolean isCompactable(double threshold) {
+      return records > 0 && live.get() < records * threshold;
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keeps payments as fixed-width records in a direct buffer laid out as an open-addressing hash
+ * table with linear probing, so a retained payment costs no heap objects beyond the skip-list node
+ * that indexes a time-ordered id by creation time. {@link Payment} instances are only materialized
+ * on {@link #get(UUID)}. Reads are optimistic and only fall back to a read lock when they race
+ * with a write. A second table of the same capacity maps authorization codes
+ * to payment ids, each slot holding the code's two longs followed by the id's.
+ */
+@Repository
+@ConditionalOnProperty(name = "payments.repository.type", havingValue = "off-heap")
+public class OffHeapPaymentsRepository implements PaymentsRepository {
+
+  static final int MAX_CAPACITY = 1 << 25;
+  private static final double MAX_LOAD_FACTOR = 0.7;
+  private static final int CODE_SLOT_SIZE = 32;
+  private static final int SCAN_BATCH_SIZE = 256;
+
+  private final StampedLock lock = new StampedLock();
+  private final CreationTimeIndex creationTimes = new CreationTimeIndex();
+  private ByteBuffer table;
+  private ByteBuffer codes;
+  private int capacity;
+  private int size;
+  private int codeCount;
+
+  public OffHeapPaymentsRepository(
+      @Value("${payments.repository.off-heap.initial-capacity:65536}") int initialCapacity) {
+    if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException(
+          "initialCapacity must be between 1 and " + MAX_CAPACITY);
+    }
+    this.capacity = Math.min(Integer.highestOneBit(initialCapacity - 1 | 1) << 1, MAX_CAPACITY);
+    this.table = allocate(capacity);
+    this.codes = ByteBuffer.allocateDirect(capacity * CODE_SLOT_SIZE);
+  }
+
+  @Override
+  public void add(Payment payment) {
+    long stamp = lock.writeLock();
+    try {
+      if (size + 1 > capacity * MAX_LOAD_FACTOR || codeCount + 1 > capacity * MAX_LOAD_FACTOR) {
+        grow();
+      }
+      int offset = findSlot(table, capacity, payment.id().getMostSignificantBits(),
+          payment.id().getLeastSignificantBits());
+      boolean isNew = !PaymentRecordCodec.isOccupied(table, offset);
+      PaymentRecordCodec.write(table, offset, payment);
+      if (isNew) {
+        size++;
+      }
+      if (payment.hasAuthorizationCode()
+          && indexCode(codes, capacity, payment.authorizationCodeMostSignificantBits(),
+              payment.authorizationCodeLeastSignificantBits(),
+              payment.id().getMostSignificantBits(), payment.id().getLeastSignificantBits())) {
+        codeCount++;
+      }
+      creationTimes.add(payment.id());
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    return Optional.ofNullable(read(() -> find(msb, lsb)));
+  }
+
+  /**
+   * Looks every id up under a single optimistic read, retrying the whole batch under one read
+   * lock if a write raced with it.
+   */
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    return read(() -> findAll(ids));
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    long msb = authorizationCode.getMostSignificantBits();
+    long lsb = authorizationCode.getLeastSignificantBits();
+    return Optional.ofNullable(read(() -> findByCode(msb, lsb)));
+  }
+
+  /** Walks the creation-time index, reading the payments in batches like {@link #getAll}. */
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    List<UUID> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+    for (UUID id : creationTimes.between(from, to)) {
+      batch.add(id);
+      if (batch.size() == SCAN_BATCH_SIZE) {
+        getAll(batch).values().forEach(action);
+        batch.clear();
+      }
+    }
+    getAll(batch).values().forEach(action);
+  }
+
+  @Override
+  public int size() {
+    long stamp = lock.readLock();
+    try {
+      return size;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  public int capacity() {
+    long stamp = lock.readLock();
+    try {
+      return capacity;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Runs {@code lookup} under an optimistic read and again under the read lock if a write raced
+   * with it. A record torn by that write can fail to decode, so a failure counts as a race too.
+   */
+  private <T> T read(Supplier<T> lookup) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        T result = lookup.get();
+        if (lock.validate(stamp)) {
+          return result;
+        }
+      } catch (RuntimeException e) {
+        // Rethrown below if it happens under the lock as well.
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return lookup.get();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private Map<UUID, Payment> findAll(Collection<UUID> ids) {
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Payment payment = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+      if (payment != null) {
+        found.put(id, payment);
+      }
+    }
+    return found;
+  }
+
+  private Payment find(long msb, long lsb) {
+    ByteBuffer current = table;
+    int currentCapacity = capacity;
+    if (current.capacity() != currentCapacity * PaymentRecordCodec.RECORD_SIZE) {
+      return null;
+    }
+    int mask = currentCapacity - 1;
+    int index = indexFor(msb, lsb, mask);
+    for (int probes = 0; probes < currentCapacity; probes++) {
+      int offset = index * PaymentRecordCodec.RECORD_SIZE;
+      if (!PaymentRecordCodec.isOccupied(current, offset)) {
+        return null;
+      }
+      if (PaymentRecordCodec.hasId(current, offset, msb, lsb)) {
+        return PaymentRecordCodec.read(current, offset);
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  private Payment findByCode(long msb, long lsb) {
+    ByteBuffer currentCodes = codes;
+    ByteBuffer current = table;
+    int currentCapacity = capacity;
+    if (currentCodes.capacity() != currentCapacity * CODE_SLOT_SIZE
+        || current.capacity() != currentCapacity * PaymentRecordCodec.RECORD_SIZE) {
+      return null;
+    }
+    int mask = currentCapacity - 1;
+    int index = indexFor(msb, lsb, mask);
+    for (int probes = 0; probes < currentCapacity; probes++) {
+      int slot = index * CODE_SLOT_SIZE;
+      long codeMsb = currentCodes.getLong(slot);
+      long codeLsb = currentCodes.getLong(slot + 8);
+      if ((codeMsb | codeLsb) == 0) {
+        return null;
+      }
+      if (codeMsb == msb && codeLsb == lsb) {
+        int offset = findSlot(current, currentCapacity, currentCodes.getLong(slot + 16),
+            currentCodes.getLong(slot + 24));
+        // The payment may since have been replaced by one carrying a different code.
+        return PaymentRecordCodec.isOccupied(current, offset)
+            && PaymentRecordCodec.hasAuthorizationCode(current, offset, msb, lsb)
+            ? PaymentRecordCodec.read(current, offset) : null;
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  private void grow() {
+    if (capacity == MAX_CAPACITY) {
+      throw new IllegalStateException("Off-heap payment store is full");
+    }
+    int newCapacity = capacity << 1;
+    ByteBuffer newTable = allocate(newCapacity);
+    byte[] record = new byte[PaymentRecordCodec.RECORD_SIZE];
+    for (int offset = 0; offset < table.capacity(); offset += PaymentRecordCodec.RECORD_SIZE) {
+      if (PaymentRecordCodec.isOccupied(table, offset)) {
+        int target = findSlot(newTable, newCapacity,
+            PaymentRecordCodec.idMostSignificantBits(table, offset),
+            PaymentRecordCodec.idLeastSignificantBits(table, offset));
+        table.get(offset, record);
+        newTable.put(target, record);
+      }
+    }
+    ByteBuffer newCodes = ByteBuffer.allocateDirect(newCapacity * CODE_SLOT_SIZE);
+    for (int slot = 0; slot < codes.capacity(); slot += CODE_SLOT_SIZE) {
+      long codeMsb = codes.getLong(slot);
+      long codeLsb = codes.getLong(slot + 8);
+      if ((codeMsb | codeLsb) != 0) {
+        indexCode(newCodes, newCapacity, codeMsb, codeLsb, codes.getLong(slot + 16),
+            codes.getLong(slot + 24));
+      }
+    }
+    table = newTable;
+    codes = newCodes;
+    capacity = newCapacity;
+  }
+
+  private static boolean indexCode(ByteBuffer buffer, int capacity, long codeMsb, long codeLsb,
+      long idMsb, long idLsb) {
+    int mask = capacity - 1;
+    int index = indexFor(codeMsb, codeLsb, mask);
+    while (true) {
+      int slot = index * CODE_SLOT_SIZE;
+      long msb = buffer.getLong(slot);
+      long lsb = buffer.getLong(slot + 8);
+      boolean isNew = (msb | lsb) == 0;
+      if (isNew || (msb == codeMsb && lsb == codeLsb)) {
+        buffer.putLong(slot, codeMsb);
+        buffer.putLong(slot + 8, codeLsb);
+        buffer.putLong(slot + 16, idMsb);
+        buffer.putLong(slot + 24, idLsb);
+        return isNew;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  private static int findSlot(ByteBuffer buffer, int capacity, long msb, long lsb) {
+    int mask = capacity - 1;
+    int index = indexFor(msb, lsb, mask);
+    while (true) {
+      int offset = index * PaymentRecordCodec.RECORD_SIZE;
+      if (!PaymentRecordCodec.isOccupied(buffer, offset)
+          || PaymentRecordCodec.hasId(buffer, offset, msb, lsb)) {
+        return offset;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  private static int indexFor(long msb, long lsb, int mask) {
+    long h = msb ^ lsb;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h & mask;
+  }
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity * PaymentRecordCodec.RECORD_SIZE);
+  }
+}
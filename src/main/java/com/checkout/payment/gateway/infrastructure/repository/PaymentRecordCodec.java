@@ -0,0 +1,136 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.SupportedCurrency;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Fixed-width binary layout for a payment. A zero status byte marks an unused record, so freshly
+ * allocated or zero-filled memory reads as empty.
+ *
+ * <pre>
+ *  0  id most significant bits   long
+ *  8  id least significant bits  long
+ * 16  amount                     int
+ * 20  card number last four      int
+ * 24  expiry year                short
+ * 26  expiry month               byte
+ * 27  currency ordinal           byte
+ * 28  status ordinal + 1         byte
+ * 32  authorization code msb     long
+ * 40  authorization code lsb     long
+ * </pre>
+ */
+final class PaymentRecordCodec {
+
+  static final int RECORD_SIZE = 48;
+
+  private static final int ID_MSB = 0;
+  private static final int ID_LSB = 8;
+  private static final int AMOUNT = 16;
+  private static final int LAST_FOUR = 20;
+  private static final int EXPIRY_YEAR = 24;
+  private static final int EXPIRY_MONTH = 26;
+  private static final int CURRENCY = 27;
+  private static final int STATUS = 28;
+  private static final int AUTHORIZATION_CODE_MSB = 32;
+  private static final int AUTHORIZATION_CODE_LSB = 40;
+
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private PaymentRecordCodec() {
+  }
+
+  /**
+   * @throws IllegalArgumentException if the payment has a field the layout cannot hold, before
+   *     anything is written
+   */
+  static void write(ByteBuffer buffer, int offset, Payment payment) {
+    if (payment.expiryYear() < Short.MIN_VALUE || payment.expiryYear() > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Expiry year does not fit in a payment record");
+    }
+    int lastFour = encodeLastFour(payment.cardNumberLastFour());
+    int currency = SupportedCurrency.valueOf(payment.currency()).ordinal();
+    buffer.putLong(offset + ID_MSB, payment.id().getMostSignificantBits());
+    buffer.putLong(offset + ID_LSB, payment.id().getLeastSignificantBits());
+    buffer.putInt(offset + AMOUNT, payment.amount());
+    buffer.putInt(offset + LAST_FOUR, lastFour);
+    buffer.putShort(offset + EXPIRY_YEAR, (short) payment.expiryYear());
+    buffer.put(offset + EXPIRY_MONTH, (byte) payment.expiryMonth());
+    buffer.put(offset + CURRENCY, (byte) currency);
+    buffer.put(offset + STATUS, (byte) (payment.status().ordinal() + 1));
+    buffer.putLong(offset + AUTHORIZATION_CODE_MSB,
+        payment.authorizationCodeMostSignificantBits());
+    buffer.putLong(offset + AUTHORIZATION_CODE_LSB,
+        payment.authorizationCodeLeastSignificantBits());
+  }
+
+  static Payment read(ByteBuffer buffer, int offset) {
+    return Payment.restore(
+        new UUID(buffer.getLong(offset + ID_MSB), buffer.getLong(offset + ID_LSB)),
+        STATUSES[buffer.get(offset + STATUS) - 1],
+        decodeLastFour(buffer.getInt(offset + LAST_FOUR)),
+        buffer.get(offset + EXPIRY_MONTH),
+        buffer.getShort(offset + EXPIRY_YEAR),
+        SupportedCurrency.fromOrdinal(buffer.get(offset + CURRENCY)).name(),
+        buffer.getInt(offset + AMOUNT),
+        buffer.getLong(offset + AUTHORIZATION_CODE_MSB),
+        buffer.getLong(offset + AUTHORIZATION_CODE_LSB)
+    );
+  }
+
+  static boolean isOccupied(ByteBuffer buffer, int offset) {
+    return buffer.get(offset + STATUS) != 0;
+  }
+
+  static long idMostSignificantBits(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + ID_MSB);
+  }
+
+  static long idLeastSignificantBits(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + ID_LSB);
+  }
+
+  static boolean hasId(ByteBuffer buffer, int offset, long msb, long lsb) {
+    return buffer.getLong(offset + ID_MSB) == msb && buffer.getLong(offset + ID_LSB) == lsb;
+  }
+
+  static long authorizationCodeMostSignificantBits(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + AUTHORIZATION_CODE_MSB);
+  }
+
+  static long authorizationCodeLeastSignificantBits(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + AUTHORIZATION_CODE_LSB);
+  }
+
+  static boolean hasAuthorizationCode(ByteBuffer buffer, int offset, long msb, long lsb) {
+    return buffer.getLong(offset + AUTHORIZATION_CODE_MSB) == msb
+        && buffer.getLong(offset + AUTHORIZATION_CODE_LSB) == lsb;
+  }
+
+  private static int encodeLastFour(String lastFour) {
+    if (lastFour.length() != 4) {
+      throw new IllegalArgumentException("Card number last four must be 4 digits");
+    }
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      char c = lastFour.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("Card number last four must be 4 digits");
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static String decodeLastFour(int value) {
+    char[] digits = new char[4];
+    for (int i = 3; i >= 0; i--) {
+      digits[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return new String(digits);
+  }
+}
@@ -0,0 +1,177 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.repository.PaymentCursor;
+import com.checkout.payment.gateway.domain.repository.PaymentPage;
+import com.checkout.payment.gateway.domain.repository.PaymentSearchCriteria;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a bounded cache of payments in front of a persistent {@link PaymentsRepository}. The cache
+ * admits and evicts with Caffeine's W-TinyLFU policy, so a burst of one-off reads of old payments
+ * does not push out the recent payments that are being polled. Ids that the cold tier does not
+ * know are cached as absent for {@code negativeTtl}, so repeated polling of an unknown id stays
+ * off the cold tier. Writes go to the cold tier first and then replace the cached entry, including
+ * an absent one.
+ *
+ * <p>Cached payments never expire, so the cold tier must keep every payment it is given. A cold
+ * tier that evicts, such as {@link BoundedInMemoryPaymentsRepository}, is refused: the cache would
+ * go on serving payments it had already dropped.
+ */
+public class TieredPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private final PaymentsRepository cold;
+  private final Cache<UUID, Optional<Payment>> hot;
+  private final LongAdder negativeHits = new LongAdder();
+
+  public TieredPaymentsRepository(PaymentsRepository cold, long maxSize, Duration negativeTtl) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    if (cold.unwrap(BoundedInMemoryPaymentsRepository.class).isPresent()) {
+      throw new IllegalArgumentException("The cold tier must not evict payments");
+    }
+    long negativeTtlNanos = negativeTtl.toNanos();
+    this.cold = cold;
+    this.hot = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<UUID, Optional<Payment>>() {
+          @Override
+          public long expireAfterCreate(UUID id, Optional<Payment> payment, long currentTime) {
+            return payment.isPresent() ? Long.MAX_VALUE : negativeTtlNanos;
+          }
+
+          @Override
+          public long expireAfterUpdate(UUID id, Optional<Payment> payment, long currentTime,
+              long currentDuration) {
+            return expireAfterCreate(id, payment, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(UUID id, Optional<Payment> payment, long currentTime,
+              long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+  }
+
+  @Override
+  public void add(Payment payment) {
+    cold.add(payment);
+    hot.put(payment.id(), Optional.of(payment));
+  }
+
+  @Override
+  public void addAll(Collection<Payment> payments) {
+    cold.addAll(payments);
+    for (Payment payment : payments) {
+      hot.put(payment.id(), Optional.of(payment));
+    }
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    // Concurrent misses for the same id share a single cold read.
+    Optional<Payment> payment = hot.get(id, cold::get);
+    if (payment.isEmpty()) {
+      negativeHits.increment();
+    }
+    return payment;
+  }
+
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    Map<UUID, Optional<Payment>> cached = hot.getAll(ids, missing -> {
+      Map<UUID, Payment> stored = cold.getAll(new ArrayList<>(missing));
+      Map<UUID, Optional<Payment>> loaded = new HashMap<>();
+      for (UUID id : missing) {
+        loaded.put(id, Optional.ofNullable(stored.get(id)));
+      }
+      return loaded;
+    });
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Optional<Payment> payment = cached.get(id);
+      if (payment != null && payment.isPresent()) {
+        found.put(id, payment.get());
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    Optional<Payment> payment = cold.findByAuthorizationCode(authorizationCode);
+    payment.ifPresent(found -> hot.put(found.id(), payment));
+    return payment;
+  }
+
+  @Override
+  public List<Payment> findMostRecent(int limit) {
+    return cold.findMostRecent(limit);
+  }
+
+  @Override
+  public PaymentPage search(PaymentSearchCriteria criteria, PaymentCursor cursor, int limit) {
+    return cold.search(criteria, cursor, limit);
+  }
+
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    cold.forEachCreatedBetween(from, to, action);
+  }
+
+  @Override
+  public int size() {
+    return cold.size();
+  }
+
+  @Override
+  public <T> Optional<T> unwrap(Class<T> type) {
+    return type.isInstance(this) ? Optional.of(type.cast(this)) : cold.unwrap(type);
+  }
+
+  /** Loads up to {@code count} of the cold tier's most recent payments into the cache. */
+  public int warmUp(int count) {
+    List<Payment> recent = cold.findMostRecent(count);
+    // Oldest first, so that the newest payments are the last the eviction policy sees.
+    for (int i = recent.size() - 1; i >= 0; i--) {
+      Payment payment = recent.get(i);
+      hot.asMap().putIfAbsent(payment.id(), Optional.of(payment));
+    }
+    return recent.size();
+  }
+
+  public Cache<UUID, Optional<Payment>> cache() {
+    return hot;
+  }
+
+  /** Reads answered from the cache or the cold tier with "no such payment". */
+  public long negativeHitCount() {
+    return negativeHits.sum();
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (cold instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
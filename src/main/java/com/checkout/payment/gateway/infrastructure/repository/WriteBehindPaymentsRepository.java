@@ -0,0 +1,299 @@
+package com.checkout.payment.gateway.infrastructure.repository;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates a slower {@link PaymentsRepository} so that {@link #add(Payment)} returns as soon as
+ * the payment is buffered. Buffered payments are readable straight away and a single flusher
+ * thread writes them to the delegate in batches of up to {@code batchSize}. When the queue holds
+ * {@code queueCapacity} payments, writers wait up to {@code offerTimeout} for room and then fail.
+ * A failed batch is retried with backoff and stays readable meanwhile. {@link #drain()} refuses
+ * further payments and flushes whatever is left, for at most {@code shutdownTimeout};
+ * {@link #close()} drains and then closes the delegate.
+ */
+public class WriteBehindPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WriteBehindPaymentsRepository.class);
+  private static final long IDLE_POLL_MILLIS = 100;
+  private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+
+  private final PaymentsRepository delegate;
+  private final int batchSize;
+  private final long offerTimeoutNanos;
+  private final long shutdownTimeoutNanos;
+  private final BlockingQueue<PendingWrite> queue;
+  private final Map<UUID, Payment> pending = new ConcurrentHashMap<>();
+  private final Map<UUID, Payment> pendingByAuthorizationCode = new ConcurrentHashMap<>();
+  private final CreationTimeIndex pendingCreationTimes = new CreationTimeIndex();
+  private final LongAdder flushFailures = new LongAdder();
+  private final Thread flusher;
+  private volatile long flushingSinceNanos;
+  // Held shared from the running check to the end of an offer, so that once drain() holds it
+  // exclusively no payment can be queued behind the flusher's last poll.
+  private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+  private volatile boolean running = true;
+  private volatile long shutdownDeadlineNanos = Long.MAX_VALUE;
+
+  public WriteBehindPaymentsRepository(PaymentsRepository delegate, int queueCapacity,
+      int batchSize, Duration offerTimeout, Duration shutdownTimeout) {
+    if (queueCapacity <= 0 || batchSize <= 0) {
+      throw new IllegalArgumentException("queueCapacity and batchSize must be positive");
+    }
+    this.delegate = delegate;
+    this.batchSize = batchSize;
+    this.offerTimeoutNanos = offerTimeout.toNanos();
+    this.shutdownTimeoutNanos = shutdownTimeout.toNanos();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.flusher = new Thread(this::flushLoop, "payments-write-behind");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  @Override
+  public void add(Payment payment) {
+    runningLock.readLock().lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException("Payment write-behind buffer is closed");
+      }
+      pending.put(payment.id(), payment);
+      if (payment.hasAuthorizationCode()) {
+        pendingByAuthorizationCode.put(payment.authorizationCode(), payment);
+      }
+      pendingCreationTimes.add(payment.id());
+      boolean queued;
+      try {
+        queued = queue.offer(new PendingWrite(payment, System.nanoTime()), offerTimeoutNanos,
+            TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        queued = false;
+      }
+      if (!queued) {
+        forget(payment);
+        throw new IllegalStateException("Payment write-behind buffer is full");
+      }
+    } finally {
+      runningLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Optional<Payment> get(UUID id) {
+    Payment payment = pending.get(id);
+    return payment != null ? Optional.of(payment) : delegate.get(id);
+  }
+
+  @Override
+  public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+    List<UUID> unbuffered = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      if (!pending.containsKey(id)) {
+        unbuffered.add(id);
+      }
+    }
+    Map<UUID, Payment> stored = unbuffered.isEmpty() ? Map.of() : delegate.getAll(unbuffered);
+    Map<UUID, Payment> found = new LinkedHashMap<>();
+    for (UUID id : ids) {
+      Payment payment = pending.get(id);
+      if (payment == null) {
+        payment = stored.get(id);
+      }
+      if (payment != null) {
+        found.put(id, payment);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Optional<Payment> findByAuthorizationCode(UUID authorizationCode) {
+    Payment payment = pendingByAuthorizationCode.get(authorizationCode);
+    return payment != null ? Optional.of(payment)
+        : delegate.findByAuthorizationCode(authorizationCode);
+  }
+
+  /** Only payments already written; buffered ones are not included. */
+  @Override
+  public List<Payment> findMostRecent(int limit) {
+    return delegate.findMostRecent(limit);
+  }
+
+  /** Merges buffered payments into the delegate's scan; a buffered copy wins over a stored one. */
+  @Override
+  public void forEachCreatedBetween(Instant from, Instant to, Consumer<? super Payment> action) {
+    Deque<Payment> buffered = new ArrayDeque<>();
+    Set<UUID> bufferedIds = new HashSet<>();
+    for (UUID id : pendingCreationTimes.between(from, to)) {
+      Payment payment = pending.get(id);
+      if (payment != null) {
+        buffered.add(payment);
+        bufferedIds.add(id);
+      }
+    }
+    delegate.forEachCreatedBetween(from, to, stored -> {
+      while (!buffered.isEmpty()
+          && buffered.peek().id().compareTo(stored.id()) < 0) {
+        action.accept(buffered.poll());
+      }
+      if (!bufferedIds.contains(stored.id())) {
+        action.accept(stored);
+      }
+    });
+    buffered.forEach(action);
+  }
+
+  /**
+   * Stored plus buffered payments. A buffered update to an already stored payment is counted
+   * twice until it is flushed.
+   */
+  @Override
+  public int size() {
+    return delegate.size() + pending.size();
+  }
+
+  @Override
+  public <T> Optional<T> unwrap(Class<T> type) {
+    return type.isInstance(this) ? Optional.of(type.cast(this)) : delegate.unwrap(type);
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  /** How long the oldest payment not yet written to the delegate has been waiting. */
+  public Duration lag() {
+    long since = flushingSinceNanos;
+    if (since == 0) {
+      PendingWrite head = queue.peek();
+      if (head == null) {
+        return Duration.ZERO;
+      }
+      since = head.enqueuedNanos();
+    }
+    return Duration.ofNanos(Math.max(0, System.nanoTime() - since));
+  }
+
+  public long flushFailureCount() {
+    return flushFailures.sum();
+  }
+
+  /**
+   * Refuses further payments and waits, for at most {@code shutdownTimeout}, for the buffered
+   * ones to be written. The delegate stays open. Calling it again does nothing.
+   */
+  public void drain() {
+    runningLock.writeLock().lock();
+    try {
+      if (!running) {
+        return;
+      }
+      shutdownDeadlineNanos = System.nanoTime() + shutdownTimeoutNanos;
+      running = false;
+    } finally {
+      runningLock.writeLock().unlock();
+    }
+    try {
+      flusher.join(TimeUnit.NANOSECONDS.toMillis(shutdownTimeoutNanos) + IDLE_POLL_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!pending.isEmpty()) {
+      LOG.error("Closed with {} payments not written to {}", pending.size(),
+          delegate.getClass().getSimpleName());
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    drain();
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  private void flushLoop() {
+    List<PendingWrite> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch, batchSize - 1);
+          flushingSinceNanos = first.enqueuedNanos();
+          if (!flush(batch)) {
+            return;
+          }
+          batch.clear();
+          flushingSinceNanos = 0;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /** Writes the batch, retrying until it succeeds or the shutdown deadline passes. */
+  private boolean flush(List<PendingWrite> batch) throws InterruptedException {
+    List<Payment> payments = new ArrayList<>(batch.size());
+    for (PendingWrite write : batch) {
+      payments.add(write.payment());
+    }
+    long retryDelayMillis = 10;
+    while (true) {
+      try {
+        delegate.addAll(payments);
+        payments.forEach(this::forget);
+        return true;
+      } catch (RuntimeException e) {
+        flushFailures.increment();
+        if (System.nanoTime() - shutdownDeadlineNanos >= 0) {
+          LOG.error("Giving up on {} buffered payments after shutdown timeout", payments.size(), e);
+          return false;
+        }
+        LOG.warn("Failed to write {} buffered payments, retrying in {} ms", payments.size(),
+            retryDelayMillis, e);
+        Thread.sleep(retryDelayMillis);
+        retryDelayMillis = Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+      }
+    }
+  }
+
+  private void forget(Payment payment) {
+    // A newer write for the same payment stays buffered until its own flush.
+    if (pending.remove(payment.id(), payment)) {
+      pendingCreationTimes.remove(payment.id(), pending);
+    }
+    if (payment.hasAuthorizationCode()) {
+      pendingByAuthorizationCode.remove(payment.authorizationCode(), payment);
+    }
+  }
+
+  private record PendingWrite(Payment payment, long enqueuedNanos) {
+  }
+}
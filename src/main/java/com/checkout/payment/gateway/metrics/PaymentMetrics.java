@@ -0,0 +1,175 @@
+package com.checkout.payment.gateway.metrics;
+
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Payment pipeline meters. Every timer and counter is registered up front and held in a field,
+ * so recording on the request path is a field read plus a lock-free update with no tag lookup.
+ */
+@Component
+public class PaymentMetrics {
+
+  static final String[] REJECTION_CODES =
+      {"VALIDATION_ERROR", "EXPIRED_CARD", "INVALID_JSON", "IDEMPOTENCY_KEY_REUSED"};
+
+  private final MeterRegistry registry;
+  private final Timer bankAuthorized;
+  private final Timer bankDeclined;
+  private final Timer bankUnavailable;
+  private final Timer bankTimeout;
+  private final Timer bankRejected;
+  private final Timer paymentAuthorized;
+  private final Timer paymentDeclined;
+  private final Timer paymentFailed;
+  private final Timer repositoryGet;
+  private final Timer repositoryAdd;
+  private final Timer repositoryGetAll;
+  private final Timer repositorySearch;
+  private final Counter bankRetries;
+  private final Counter bankHedgesFired;
+  private final Counter bankHedgesWon;
+  private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+  public PaymentMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    this.bankAuthorized = bankTimer("authorized");
+    this.bankDeclined = bankTimer("declined");
+    this.bankUnavailable = bankTimer("unavailable");
+    this.bankTimeout = bankTimer("timeout");
+    this.bankRejected = bankTimer("rejected");
+    this.paymentAuthorized = paymentTimer("authorized");
+    this.paymentDeclined = paymentTimer("declined");
+    this.paymentFailed = paymentTimer("failed");
+    this.repositoryGet = repositoryTimer("get");
+    this.repositoryAdd = repositoryTimer("add");
+    this.repositoryGetAll = repositoryTimer("get-all");
+    this.repositorySearch = repositoryTimer("search");
+    this.bankRetries = Counter.builder("bank.retries")
+        .description("Bank calls retried after a 503 or connection failure")
+        .register(registry);
+    this.bankHedgesFired = Counter.builder("bank.hedges.fired")
+        .description("Hedged bank calls sent")
+        .register(registry);
+    this.bankHedgesWon = Counter.builder("bank.hedges.won")
+        .description("Hedged bank calls that answered before the original")
+        .register(registry);
+    for (String code : REJECTION_CODES) {
+      rejections.put(code, rejectionCounter(code));
+    }
+  }
+
+  public void recordBankCall(Object response, Throwable error, long durationNanos) {
+    Timer timer;
+    if (error != null) {
+      timer = isTimeout(error) ? bankTimeout
+          : hasCause(error, BankCallRejectedException.class) ? bankRejected : bankUnavailable;
+    } else if (response instanceof BankPaymentResponse bankResponse && !bankResponse.authorized()) {
+      timer = bankDeclined;
+    } else {
+      timer = bankAuthorized;
+    }
+    timer.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordBankRetry() {
+    bankRetries.increment();
+  }
+
+  public void recordBankHedgeFired() {
+    bankHedgesFired.increment();
+  }
+
+  public void recordBankHedgeWon() {
+    bankHedgesWon.increment();
+  }
+
+  public void recordPayment(boolean authorized, long durationNanos) {
+    (authorized ? paymentAuthorized : paymentDeclined)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordPaymentFailure(long durationNanos) {
+    paymentFailed.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordRepositoryGet(long durationNanos) {
+    repositoryGet.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordRepositoryAdd(long durationNanos) {
+    repositoryAdd.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordRepositoryGetAll(long durationNanos) {
+    repositoryGetAll.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordRepositorySearch(long durationNanos) {
+    repositorySearch.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordRejection(String code) {
+    Counter counter = rejections.get(code);
+    if (counter == null) {
+      counter = rejections.computeIfAbsent(code, this::rejectionCounter);
+    }
+    counter.increment();
+  }
+
+  private Timer bankTimer(String outcome) {
+    return Timer.builder("bank.calls")
+        .description("Bank authorization call latency")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private Timer paymentTimer(String outcome) {
+    return Timer.builder("payments.process")
+        .description("End-to-end payment processing latency")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private Timer repositoryTimer(String operation) {
+    return Timer.builder("payments.repository.operations")
+        .description("Payments repository operation latency")
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private Counter rejectionCounter(String code) {
+    return Counter.builder("payments.rejected")
+        .description("Payment requests rejected before reaching the bank")
+        .tag("code", code)
+        .register(registry);
+  }
+
+  private static boolean isTimeout(Throwable error) {
+    return hasCause(error, HttpTimeoutException.class)
+        || hasCause(error, SocketTimeoutException.class)
+        || hasCause(error, TimeoutException.class);
+  }
+
+  private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (type.isInstance(cause)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
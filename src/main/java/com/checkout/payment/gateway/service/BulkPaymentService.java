@@ -0,0 +1,104 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.CommonExceptionHandler;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Processes a newline-delimited stream of {@link PostPaymentRequest}s and writes one
+ * {@code PostPaymentResponse} or {@code ErrorResponse} line per non-blank input line, in input
+ * order. At most {@code maxInFlight} payments are outstanding at once, which also bounds how many
+ * finished results can wait behind a slower one, so memory stays flat however long the stream is.
+ */
+@Service
+public class BulkPaymentService {
+
+  private static final byte NEWLINE = '\n';
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final PaymentRequestValidator paymentRequestValidator;
+  private final CommonExceptionHandler exceptionHandler;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader requestReader;
+  private final int maxInFlight;
+
+  public BulkPaymentService(PaymentGatewayService paymentGatewayService,
+      PaymentRequestValidator paymentRequestValidator, CommonExceptionHandler exceptionHandler,
+      ObjectMapper objectMapper, @Value("${payments.bulk.max-in-flight:64}") int maxInFlight) {
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("maxInFlight must be positive");
+    }
+    this.paymentGatewayService = paymentGatewayService;
+    this.paymentRequestValidator = paymentRequestValidator;
+    this.exceptionHandler = exceptionHandler;
+    this.objectMapper = objectMapper;
+    this.requestReader = objectMapper.readerFor(PostPaymentRequest.class);
+    this.maxInFlight = maxInFlight;
+  }
+
+  public void process(InputStream requests, OutputStream responses) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(requests, StandardCharsets.UTF_8));
+    Deque<CompletableFuture<Object>> pending = new ArrayDeque<>(maxInFlight);
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      if (pending.size() == maxInFlight) {
+        writeOldest(pending, responses);
+      }
+      pending.addLast(submit(line));
+      while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+        write(pending.removeFirst().join(), responses);
+      }
+    }
+    while (!pending.isEmpty()) {
+      writeOldest(pending, responses);
+    }
+    responses.flush();
+  }
+
+  private CompletableFuture<Object> submit(String line) {
+    try {
+      PostPaymentRequest request = requestReader.readValue(line);
+      paymentRequestValidator.validate(request);
+      return paymentGatewayService.processPaymentAsync(request)
+          .handle((response, error) -> error == null ? response : toErrorResponse(error));
+    } catch (IOException | RuntimeException e) {
+      return CompletableFuture.completedFuture(toErrorResponse(e));
+    }
+  }
+
+  private Object toErrorResponse(Throwable error) {
+    return exceptionHandler.handle(error).getBody();
+  }
+
+  private void writeOldest(Deque<CompletableFuture<Object>> pending, OutputStream responses)
+      throws IOException {
+    CompletableFuture<Object> oldest = pending.removeFirst();
+    if (!oldest.isDone()) {
+      // About to block, so hand what is already written to the client first.
+      responses.flush();
+    }
+    write(oldest.join(), responses);
+  }
+
+  private void write(Object result, OutputStream responses) throws IOException {
+    responses.write(objectMapper.writeValueAsBytes(result));
+    responses.write(NEWLINE);
+  }
+}
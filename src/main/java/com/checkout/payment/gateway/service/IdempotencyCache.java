@@ -0,0 +1,142 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.dto.PostPaymentResponse;
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the outcome of each idempotency key for {@code ttl}. The first request for a key runs
+ * the payment; concurrent duplicates wait on the same result, and later duplicates get the stored
+ * response. Failed attempts are forgotten so the client can retry them.
+ */
+@Component
+public class IdempotencyCache {
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final Clock clock;
+
+  @Autowired
+  public IdempotencyCache(
+      @Value("${payments.idempotency.max-entries:1000000}") int maxEntries,
+      @Value("${payments.idempotency.ttl:PT24H}") Duration ttl) {
+    this(maxEntries, ttl, Clock.systemUTC());
+  }
+
+  public IdempotencyCache(int maxEntries, Duration ttl, Clock clock) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttl.toMillis();
+    this.clock = clock;
+  }
+
+  public PostPaymentResponse execute(String key, PostPaymentRequest request,
+      Supplier<PostPaymentResponse> payment) {
+    try {
+      return executeAsync(key, request,
+          () -> CompletableFuture.completedFuture(payment.get())).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  public CompletableFuture<PostPaymentResponse> executeAsync(String key,
+      PostPaymentRequest request, Supplier<CompletableFuture<PostPaymentResponse>> payment) {
+    Fingerprint fingerprint = Fingerprint.of(request);
+    long now = clock.millis();
+    Entry entry = new Entry(key, fingerprint, now + ttlMillis);
+
+    Entry existing;
+    while ((existing = entries.putIfAbsent(key, entry)) != null) {
+      if (!existing.isExpired(now)) {
+        if (!existing.fingerprint.equals(fingerprint)) {
+          return CompletableFuture.failedFuture(new IdempotencyKeyConflictException(
+              "Idempotency key was already used for a different payment request"));
+        }
+        return existing.result;
+      }
+      entries.remove(key, existing);
+    }
+    insertionOrder.offer(entry);
+    evict(now);
+
+    CompletableFuture<PostPaymentResponse> attempt;
+    try {
+      attempt = payment.get();
+    } catch (RuntimeException e) {
+      attempt = CompletableFuture.failedFuture(e);
+    }
+    attempt.whenComplete((response, error) -> {
+      if (error != null) {
+        entries.remove(key, entry);
+        entry.result.completeExceptionally(error instanceof CompletionException
+            ? error.getCause() : error);
+      } else {
+        entry.result.complete(response);
+      }
+    });
+    return entry.result;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private void evict(long now) {
+    Entry head;
+    while ((head = insertionOrder.peek()) != null
+        && (head.isExpired(now) || entries.size() > maxEntries)) {
+      if (insertionOrder.remove(head)) {
+        entries.remove(head.key, head);
+      }
+    }
+  }
+
+  // Card number and CVV are deliberately left out so they are not retained after authorization.
+  private record Fingerprint(String cardNumberLastFour, Integer expiryMonth, Integer expiryYear,
+                             String currency, Integer amount) {
+
+    static Fingerprint of(PostPaymentRequest request) {
+      String cardNumber = request.cardNumber();
+      return new Fingerprint(
+          cardNumber.substring(Math.max(0, cardNumber.length() - 4)),
+          request.expiryMonth(),
+          request.expiryYear(),
+          request.currency(),
+          request.amount());
+    }
+  }
+
+  private static final class Entry {
+
+    private final String key;
+    private final Fingerprint fingerprint;
+    private final long expiresAtMillis;
+    private final CompletableFuture<PostPaymentResponse> result = new CompletableFuture<>();
+
+    Entry(String key, Fingerprint fingerprint, long expiresAtMillis) {
+      this.key = key;
+      this.fingerprint = fingerprint;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+
+    boolean isExpired(long now) {
+      return now >= expiresAtMillis;
+    }
+  }
+}
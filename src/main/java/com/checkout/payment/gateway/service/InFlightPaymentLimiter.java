@@ -0,0 +1,59 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the payments processed asynchronously and how long a caller waits for one. A payment over
+ * {@code maxInFlight} is shed straight away. One still running after {@code timeout} fails its
+ * caller with a {@link TimeoutException} but holds its permit until it really finishes, so slow
+ * bank calls cannot pile up behind requests that already gave up.
+ */
+@Component
+public class InFlightPaymentLimiter {
+
+  private final Semaphore permits;
+  private final int maxInFlight;
+  private final long timeoutMillis;
+
+  public InFlightPaymentLimiter(
+      @Value("${payments.async.max-in-flight:10000}") int maxInFlight,
+      @Value("${payments.async.timeout:PT15S}") Duration timeout) {
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("maxInFlight must be positive");
+    }
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+    this.permits = new Semaphore(maxInFlight);
+    this.maxInFlight = maxInFlight;
+    this.timeoutMillis = timeout.toMillis();
+  }
+
+  public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> payment) {
+    if (!permits.tryAcquire()) {
+      throw new BankCallRejectedException("Too many payments in flight");
+    }
+    CompletableFuture<T> result;
+    try {
+      result = payment.get();
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    result.whenComplete((response, error) -> permits.release());
+    // Time out a copy: the future may be shared with idempotent replays of the same request.
+    return result.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public int inFlight() {
+    return maxInFlight - permits.availablePermits();
+  }
+}
@@ -1,15 +1,33 @@
 package com.checkout.payment.gateway.service;
 
 import com.checkout.payment.gateway.domain.Payment;
-import com.checkout.payment.gateway.infrastructure.external.BankClient;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.infrastructure.external.AsyncBankClient;
 import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
 import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.dto.PaymentLookupResponse;
+import com.checkout.payment.gateway.dto.PaymentSearchRequest;
+import com.checkout.payment.gateway.dto.PaymentSearchResponse;
 import com.checkout.payment.gateway.dto.PostPaymentRequest;
 import com.checkout.payment.gateway.dto.PostPaymentResponse;
+import com.checkout.payment.gateway.domain.repository.PaymentCursor;
+import com.checkout.payment.gateway.domain.repository.PaymentPage;
+import com.checkout.payment.gateway.domain.repository.PaymentSearchCriteria;
 import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
-import com.checkout.payment.gateway.exception.PaymentNotFoundException;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import com.checkout.payment.gateway.infrastructure.repository.IndexedPaymentsRepository;
 import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -18,27 +36,125 @@ import org.springframework.stereotype.Service;
 public class PaymentGatewayService {
 
   private static final Logger LOG = LoggerFactory.getLogger(PaymentGatewayService.class);
+  private static final int DEFAULT_SEARCH_LIMIT = 50;
 
   private final PaymentsRepository paymentsRepository;
-  private final BankClient bankClient;
+  private final AsyncBankClient asyncBankClient;
+  private final IdempotencyCache idempotencyCache;
+  private final PaymentMetrics metrics;
+  private final PaymentIdGenerator idGenerator = PaymentIdGenerator.system();
 
-  public PaymentGatewayService(PaymentsRepository paymentsRepository, BankClient bankClient) {
+  public PaymentGatewayService(PaymentsRepository paymentsRepository,
+      AsyncBankClient asyncBankClient, IdempotencyCache idempotencyCache, PaymentMetrics metrics) {
     this.paymentsRepository = paymentsRepository;
-    this.bankClient = bankClient;
+    this.asyncBankClient = asyncBankClient;
+    this.idempotencyCache = idempotencyCache;
+    this.metrics = metrics;
   }
 
-  public GetPaymentResponse getPaymentById(UUID id) {
+  public Optional<GetPaymentResponse> findPaymentById(UUID id) {
     LOG.debug("Requesting access to payment with ID {}", id);
-    Payment payment = paymentsRepository.get(id)
-        .orElseThrow(() -> new PaymentNotFoundException("Invalid ID"));
-    return toGetPaymentResponse(payment);
+    long start = System.nanoTime();
+    Optional<Payment> found = paymentsRepository.get(id);
+    metrics.recordRepositoryGet(System.nanoTime() - start);
+    return found.map(this::toGetPaymentResponse);
   }
 
-  public PostPaymentResponse processPayment(PostPaymentRequest paymentRequest) {
-    UUID paymentId = UUID.randomUUID();
-    
-    Payment payment = new Payment(
-        paymentId,
+  public Optional<GetPaymentResponse> findPaymentByAuthorizationCode(UUID authorizationCode) {
+    long start = System.nanoTime();
+    Optional<Payment> found = paymentsRepository.findByAuthorizationCode(authorizationCode);
+    metrics.recordRepositoryGet(System.nanoTime() - start);
+    return found.map(this::toGetPaymentResponse);
+  }
+
+  public PaymentLookupResponse lookupPayments(Collection<UUID> ids) {
+    Set<UUID> uniqueIds = new LinkedHashSet<>(ids);
+    long start = System.nanoTime();
+    Map<UUID, Payment> found = paymentsRepository.getAll(uniqueIds);
+    metrics.recordRepositoryGetAll(System.nanoTime() - start);
+
+    List<GetPaymentResponse> payments = new ArrayList<>(found.size());
+    List<UUID> missing = new ArrayList<>(uniqueIds.size() - found.size());
+    for (UUID id : uniqueIds) {
+      Payment payment = found.get(id);
+      if (payment == null) {
+        missing.add(id);
+      } else {
+        payments.add(toGetPaymentResponse(payment));
+      }
+    }
+    return new PaymentLookupResponse(payments, missing);
+  }
+
+  /**
+   * Expects a request that {@code PaymentRequestValidator} has accepted. Empty when the repository
+   * keeps no search indexes.
+   */
+  public Optional<PaymentSearchResponse> searchPayments(PaymentSearchRequest request) {
+    if (paymentsRepository.unwrap(IndexedPaymentsRepository.class).isEmpty()) {
+      return Optional.empty();
+    }
+    PaymentSearchCriteria criteria = new PaymentSearchCriteria(
+        request.status() == null ? null : PaymentStatus.fromName(request.status()),
+        request.currency(),
+        request.lastFour(),
+        request.from() == null ? null : Instant.parse(request.from()),
+        request.to() == null ? null : Instant.parse(request.to()));
+    int limit = request.limit() == null ? DEFAULT_SEARCH_LIMIT : request.limit();
+    PaymentCursor cursor;
+    try {
+      cursor = request.cursor() == null ? null : PaymentCursor.parse(request.cursor());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPaymentRequestException("cursor: Cursor is not valid");
+    }
+
+    long start = System.nanoTime();
+    PaymentPage page = paymentsRepository.search(criteria, cursor, limit);
+    metrics.recordRepositorySearch(System.nanoTime() - start);
+
+    List<GetPaymentResponse> payments = new ArrayList<>(page.payments().size());
+    for (Payment payment : page.payments()) {
+      payments.add(toGetPaymentResponse(payment));
+    }
+    return Optional.of(new PaymentSearchResponse(payments,
+        page.nextCursor() == null ? null : page.nextCursor().toString()));
+  }
+
+  public CompletableFuture<PostPaymentResponse> processPaymentAsync(
+      PostPaymentRequest paymentRequest, String idempotencyKey) {
+    if (idempotencyKey == null) {
+      return processPaymentAsync(paymentRequest);
+    }
+    return idempotencyCache.executeAsync(idempotencyKey, paymentRequest,
+        () -> processPaymentAsync(paymentRequest));
+  }
+
+  public CompletableFuture<PostPaymentResponse> processPaymentAsync(
+      PostPaymentRequest paymentRequest) {
+    long start = System.nanoTime();
+    Payment payment;
+    try {
+      payment = createPayment(paymentRequest);
+    } catch (RuntimeException e) {
+      metrics.recordPaymentFailure(System.nanoTime() - start);
+      throw e;
+    }
+
+    return asyncBankClient.processPayment(paymentRequest)
+        .thenApply(bankResponse -> completePayment(payment, bankResponse))
+        .whenComplete((response, error) -> {
+          if (error == null) {
+            metrics.recordPayment(response.status() == PaymentStatus.AUTHORIZED,
+                System.nanoTime() - start);
+          } else {
+            metrics.recordPaymentFailure(System.nanoTime() - start);
+          }
+        });
+  }
+
+  private Payment createPayment(PostPaymentRequest paymentRequest) {
+    return new Payment(
+        idGenerator.next(),
         PaymentStatus.AUTHORIZED,
         paymentRequest.cardNumber(),
         paymentRequest.expiryMonth(),
@@ -46,12 +162,21 @@ public class PaymentGatewayService {
         paymentRequest.currency(),
         paymentRequest.amount()
     );
-    
-    BankPaymentResponse bankResponse = bankClient.processPayment(paymentRequest);
+  }
 
-    payment.processBankResponse(bankResponse.authorized());
-    
+  private PostPaymentResponse completePayment(Payment payment, BankPaymentResponse bankResponse) {
+    try {
+      payment.processBankResponse(bankResponse.authorized(), bankResponse.authorizationCode());
+    } catch (IllegalArgumentException e) {
+      // The bank has already decided, so keep the payment rather than fail it over the code.
+      LOG.warn("Bank returned malformed authorization code {} for payment {}",
+          bankResponse.authorizationCode(), payment.id());
+      payment.processBankResponse(bankResponse.authorized());
+    }
+
+    long start = System.nanoTime();
     paymentsRepository.add(payment);
+    metrics.recordRepositoryAdd(System.nanoTime() - start);
     
     return toPostPaymentResponse(payment);
   }
@@ -64,7 +189,9 @@ public class PaymentGatewayService {
         payment.expiryMonth(),
         payment.expiryYear(),
         payment.currency(),
-        payment.amount()
+        payment.amount(),
+        payment.createdAt(),
+        payment.authorizationCode()
     );
   }
 
@@ -76,7 +203,8 @@ public class PaymentGatewayService {
         payment.expiryMonth(),
         payment.expiryYear(),
         payment.currency(),
-        payment.amount()
+        payment.amount(),
+        payment.createdAt()
     );
   }
 }
\ No newline at end of file
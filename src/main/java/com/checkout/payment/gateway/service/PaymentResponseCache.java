@@ -0,0 +1,95 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized GET bodies of stored payments. A payment never changes once the bank has answered,
+ * so its JSON and ETag are built on the first read and served as-is until the entry is evicted,
+ * oldest first, beyond {@code maxEntries}. Zero disables caching; bodies are then built per read.
+ *
+ * <p>Over a {@link BoundedInMemoryPaymentsRepository}, entries are dropped as the store evicts or
+ * expires their payments, and a cached body is only served while the store still holds the
+ * payment. That check is a map lookup; a payment expired but not yet swept is caught by it.
+ */
+@Component
+public class PaymentResponseCache {
+
+  private final ConcurrentHashMap<UUID, SerializedPayment> entries = new ConcurrentHashMap<>();
+  private final Queue<UUID> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final ObjectWriter writer;
+  private final int maxEntries;
+  private final PaymentsRepository paymentsRepository;
+  private final boolean storeEvicts;
+
+  public PaymentResponseCache(ObjectMapper objectMapper, PaymentsRepository paymentsRepository,
+      @Value("${payments.response-cache.max-entries:0}") int maxEntries) {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("maxEntries must not be negative");
+    }
+    this.writer = objectMapper.writerFor(GetPaymentResponse.class);
+    this.maxEntries = maxEntries;
+    this.paymentsRepository = paymentsRepository;
+    Optional<BoundedInMemoryPaymentsRepository> bounded =
+        paymentsRepository.unwrap(BoundedInMemoryPaymentsRepository.class);
+    bounded.ifPresent(store -> store.addRemovalListener(payment -> entries.remove(payment.id())));
+    this.storeEvicts = bounded.isPresent();
+  }
+
+  public Optional<SerializedPayment> get(UUID id,
+      Function<UUID, Optional<GetPaymentResponse>> loader) {
+    SerializedPayment cached = entries.get(id);
+    if (cached != null) {
+      // An entry cached just as the store dropped its payment is caught here.
+      if (!storeEvicts || paymentsRepository.get(id).isPresent()) {
+        return Optional.of(cached);
+      }
+      entries.remove(id, cached);
+    }
+    Optional<SerializedPayment> loaded = loader.apply(id).map(this::serialize);
+    if (maxEntries > 0 && loaded.isPresent() && entries.putIfAbsent(id, loaded.get()) == null) {
+      insertionOrder.offer(id);
+      evictOverflow();
+    }
+    return loaded;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private SerializedPayment serialize(GetPaymentResponse payment) {
+    byte[] body;
+    try {
+      body = writer.writeValueAsBytes(payment);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Failed to serialize payment " + payment.id(), e);
+    }
+    CRC32C checksum = new CRC32C();
+    checksum.update(body);
+    return new SerializedPayment(body, '"' + Long.toHexString(checksum.getValue()) + '"');
+  }
+
+  private void evictOverflow() {
+    UUID oldest;
+    while (entries.size() > maxEntries && (oldest = insertionOrder.poll()) != null) {
+      entries.remove(oldest);
+    }
+  }
+
+  public record SerializedPayment(byte[] body, String etag) {}
+}
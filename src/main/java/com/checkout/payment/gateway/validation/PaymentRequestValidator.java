@@ -0,0 +1,234 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.domain.CurrentMonth;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.dto.PaymentLookupRequest;
+import com.checkout.payment.gateway.dto.PaymentSearchRequest;
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.ExpiredCardException;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hand-written replacement for bean validation of {@link PostPaymentRequest}. Valid requests are
+ * checked with plain character scans and no allocation; the {@code field: message} list is only
+ * built once a check fails, using the same messages the constraint annotations produced.
+ */
+@Component
+public class PaymentRequestValidator {
+
+  // Card expiry years have four digits; anything later cannot be stored or sent to the bank.
+  private static final int MAX_EXPIRY_YEAR = 9999;
+
+  private final boolean luhnCheckEnabled;
+  private final int maxLookupIds;
+  private final int maxSearchLimit;
+  private final CurrentMonth currentMonth;
+
+  @Autowired
+  public PaymentRequestValidator(
+      @Value("${payments.validation.luhn-check-enabled:false}") boolean luhnCheckEnabled,
+      @Value("${payments.lookup.max-ids:10000}") int maxLookupIds,
+      @Value("${payments.search.max-limit:500}") int maxSearchLimit) {
+    this(luhnCheckEnabled, maxLookupIds, maxSearchLimit, CurrentMonth.system());
+  }
+
+  public PaymentRequestValidator(boolean luhnCheckEnabled, int maxLookupIds,
+      CurrentMonth currentMonth) {
+    this(luhnCheckEnabled, maxLookupIds, 500, currentMonth);
+  }
+
+  public PaymentRequestValidator(boolean luhnCheckEnabled, int maxLookupIds, int maxSearchLimit,
+      CurrentMonth currentMonth) {
+    this.luhnCheckEnabled = luhnCheckEnabled;
+    this.maxLookupIds = maxLookupIds;
+    this.maxSearchLimit = maxSearchLimit;
+    this.currentMonth = currentMonth;
+  }
+
+  public void validate(PostPaymentRequest request) {
+    StringBuilder errors = null;
+
+    String cardNumber = request.cardNumber();
+    if (cardNumber == null) {
+      errors = append(errors, "cardNumber", "Card number is required");
+    } else if (!isDigits(cardNumber, 14, 19)) {
+      errors = append(errors, "cardNumber",
+          "Card number must be 14-19 digits long and contain only numeric characters");
+    } else if (luhnCheckEnabled && !passesLuhnCheck(cardNumber)) {
+      errors = append(errors, "cardNumber", "Card number is not valid");
+    }
+
+    Integer expiryMonth = request.expiryMonth();
+    if (expiryMonth == null) {
+      errors = append(errors, "expiryMonth", "Expiry month is required");
+    } else if (expiryMonth < 1 || expiryMonth > 12) {
+      errors = append(errors, "expiryMonth", "Expiry month must be between 1 and 12");
+    }
+
+    if (request.expiryYear() == null) {
+      errors = append(errors, "expiryYear", "Expiry year is required");
+    } else if (request.expiryYear() > MAX_EXPIRY_YEAR) {
+      errors = append(errors, "expiryYear", "Expiry year must be at most " + MAX_EXPIRY_YEAR);
+    }
+
+    String currency = request.currency();
+    if (currency == null || currency.isBlank()) {
+      errors = append(errors, "currency", "Currency is required");
+    }
+    if (currency != null && !isSupportedCurrency(currency)) {
+      errors = append(errors, "currency", "Currency must be one of: USD, EUR, GBP");
+    }
+
+    Integer amount = request.amount();
+    if (amount == null) {
+      errors = append(errors, "amount", "Amount is required");
+    } else if (amount < 1) {
+      errors = append(errors, "amount", "Amount must be a positive integer");
+    }
+
+    String cvv = request.cvv();
+    if (cvv == null) {
+      errors = append(errors, "cvv", "CVV is required");
+    } else if (!isDigits(cvv, 3, 4)) {
+      errors = append(errors, "cvv",
+          "CVV must be 3-4 digits long and contain only numeric characters");
+    }
+
+    if (errors != null) {
+      throw new InvalidPaymentRequestException(errors.toString());
+    }
+    if (currentMonth.isExpired(request.expiryYear(), expiryMonth)) {
+      throw new ExpiredCardException("Card expiry date must be in the future");
+    }
+  }
+
+  public void validate(PaymentLookupRequest request) {
+    List<UUID> ids = request.ids();
+    if (ids == null || ids.isEmpty()) {
+      throw new InvalidPaymentRequestException("ids: At least one id is required");
+    }
+    if (ids.size() > maxLookupIds) {
+      throw new InvalidPaymentRequestException(
+          "ids: At most " + maxLookupIds + " ids can be looked up at once");
+    }
+    for (UUID id : ids) {
+      if (id == null) {
+        throw new InvalidPaymentRequestException("ids: Ids must not be null");
+      }
+    }
+  }
+
+  public void validate(PaymentSearchRequest request) {
+    StringBuilder errors = null;
+
+    if (request.status() != null && PaymentStatus.fromName(request.status()) == null) {
+      errors = append(errors, "status", "Status must be one of: Authorized, Declined, Rejected");
+    }
+    if (request.currency() != null && !isSupportedCurrency(request.currency())) {
+      errors = append(errors, "currency", "Currency must be one of: USD, EUR, GBP");
+    }
+    if (request.lastFour() != null && !isDigits(request.lastFour(), 4, 4)) {
+      errors = append(errors, "lastFour", "Last four must be exactly 4 digits");
+    }
+    Instant from = parseInstant(request.from());
+    if (request.from() != null && from == null) {
+      errors = append(errors, "from", "From must be an ISO-8601 instant");
+    }
+    Instant to = parseInstant(request.to());
+    if (request.to() != null && to == null) {
+      errors = append(errors, "to", "To must be an ISO-8601 instant");
+    }
+    if (from != null && to != null && !from.isBefore(to)) {
+      errors = append(errors, "to", "To must be after from");
+    }
+    if (request.cursor() != null && !isHex(request.cursor(), 1, 16)) {
+      errors = append(errors, "cursor", "Cursor is not valid");
+    }
+    Integer limit = request.limit();
+    if (limit != null && (limit < 1 || limit > maxSearchLimit)) {
+      errors = append(errors, "limit", "Limit must be between 1 and " + maxSearchLimit);
+    }
+
+    if (errors != null) {
+      throw new InvalidPaymentRequestException(errors.toString());
+    }
+  }
+
+  static boolean isDigits(String value, int minLength, int maxLength) {
+    int length = value.length();
+    if (length < minLength || length > maxLength) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean isHex(String value, int minLength, int maxLength) {
+    int length = value.length();
+    if (length < minLength || length > maxLength) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (Character.digit(value.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean passesLuhnCheck(String digits) {
+    int sum = 0;
+    boolean doubled = false;
+    for (int i = digits.length() - 1; i >= 0; i--) {
+      int digit = digits.charAt(i) - '0';
+      if (doubled) {
+        digit *= 2;
+        if (digit > 9) {
+          digit -= 9;
+        }
+      }
+      sum += digit;
+      doubled = !doubled;
+    }
+    return sum % 10 == 0;
+  }
+
+  static boolean isSupportedCurrency(String currency) {
+    return switch (currency) {
+      case "USD", "EUR", "GBP" -> true;
+      default -> false;
+    };
+  }
+
+  private static Instant parseInstant(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Instant.parse(value);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private static StringBuilder append(StringBuilder errors, String field, String message) {
+    if (errors == null) {
+      errors = new StringBuilder();
+    } else {
+      errors.append(", ");
+    }
+    return errors.append(field).append(": ").append(message);
+  }
+}
@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.configuration;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.WriteBehindPaymentsRepository;
+import java.util.Collection;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+class WriteBehindConfigurationTest {
+
+  @Test
+  void whenContextClosesThenBufferedPaymentsAreWrittenBeforeTheRepositoryIsClosed() {
+    new ApplicationContextRunner()
+        .withPropertyValues("payments.repository.write-behind.enabled=true")
+        .withUserConfiguration(SlowRepositoryConfiguration.class, WriteBehindConfiguration.class)
+        .run(context -> {
+          PaymentsRepository repository = context.getBean(PaymentsRepository.class);
+          SlowRepository store = repository.unwrap(SlowRepository.class).orElseThrow();
+          for (int i = 0; i < 20; i++) {
+            repository.add(authorizedPayment(UUID.randomUUID()));
+          }
+          assertTrue(repository.unwrap(WriteBehindPaymentsRepository.class).orElseThrow()
+              .pendingCount() > 0);
+
+          context.close();
+
+          assertEquals(20, store.size());
+          assertEquals(20, store.sizeWhenClosed);
+          assertThrows(IllegalStateException.class,
+              () -> repository.add(authorizedPayment(UUID.randomUUID())));
+        });
+  }
+
+  @Configuration
+  static class SlowRepositoryConfiguration {
+
+    @Bean
+    SlowRepository paymentsRepository() {
+      return new SlowRepository();
+    }
+  }
+
+  static class SlowRepository extends InMemoryPaymentsRepository implements AutoCloseable {
+
+    volatile int sizeWhenClosed = -1;
+
+    @Override
+    public void addAll(Collection<Payment> payments) {
+      try {
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      super.addAll(payments);
+    }
+
+    @Override
+    public void close() {
+      sizeWhenClosed = size();
+    }
+  }
+}
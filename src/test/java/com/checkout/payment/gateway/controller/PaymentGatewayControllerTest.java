@@ -2,29 +2,57 @@ package com.checkout.payment.gateway.controller;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
 import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.dto.PaymentLookupResponse;
+import com.checkout.payment.gateway.dto.PaymentSearchRequest;
+import com.checkout.payment.gateway.dto.PaymentSearchResponse;
 import com.checkout.payment.gateway.dto.PostPaymentResponse;
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
 import com.checkout.payment.gateway.exception.ExpiredCardException;
-import com.checkout.payment.gateway.exception.PaymentNotFoundException;
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.checkout.payment.gateway.service.BulkPaymentService;
+import com.checkout.payment.gateway.service.InFlightPaymentLimiter;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentResponseCache;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 @WebMvcTest(PaymentGatewayController.class)
+@Import({PaymentRequestValidator.class, PaymentResponseCache.class,
+    InFlightPaymentLimiter.class})
 class PaymentGatewayControllerTest {
 
   @Autowired
@@ -33,6 +61,15 @@ class PaymentGatewayControllerTest {
   @MockBean
   private PaymentGatewayService paymentGatewayService;
 
+  @MockBean
+  private BulkPaymentService bulkPaymentService;
+
+  @MockBean
+  private PaymentMetrics paymentMetrics;
+
+  @MockBean
+  private PaymentsRepository paymentsRepository;
+
   @ParameterizedTest
   @EnumSource(value = PaymentStatus.class, names = {"AUTHORIZED", "DECLINED"})
   void whenPaymentsExistThenCorrectDetailsAreReturned(PaymentStatus status) throws Exception {
@@ -44,6 +81,8 @@ class PaymentGatewayControllerTest {
     String lastFour = "4321";
 
     UUID paymentId = UUID.randomUUID();
+    UUID authorizationCode = status == PaymentStatus.AUTHORIZED ? UUID.randomUUID() : null;
+    Instant createdAt = Instant.parse("2030-01-01T00:00:00Z");
     GetPaymentResponse response = new GetPaymentResponse(
         paymentId,
         status,
@@ -51,10 +90,12 @@ class PaymentGatewayControllerTest {
         expiryMonth,
         expiryYear,
         currency,
-        amount
+        amount,
+        createdAt,
+        authorizationCode
     );
 
-    when(paymentGatewayService.getPaymentById(paymentId)).thenReturn(response);
+    when(paymentGatewayService.findPaymentById(paymentId)).thenReturn(Optional.of(response));
 
     mvc.perform(MockMvcRequestBuilders.get("/payments/" + paymentId))
         .andExpect(status().isOk())
@@ -64,15 +105,59 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.expiryMonth").value(expiryMonth))
         .andExpect(jsonPath("$.expiryYear").value(expiryYear))
         .andExpect(jsonPath("$.currency").value(currency))
-        .andExpect(jsonPath("$.amount").value(amount));
+        .andExpect(jsonPath("$.amount").value(amount))
+        .andExpect(jsonPath("$.createdAt").value("2030-01-01T00:00:00Z"))
+        .andExpect(jsonPath("$.authorizationCode").value(
+            authorizationCode == null ? null : authorizationCode.toString()));
+  }
+
+  @Test
+  void whenAuthorizationCodeKnownThenPaymentIsReturned() throws Exception {
+    UUID paymentId = UUID.randomUUID();
+    UUID authorizationCode = UUID.randomUUID();
+    when(paymentGatewayService.findPaymentByAuthorizationCode(authorizationCode)).thenReturn(
+        Optional.of(new GetPaymentResponse(paymentId, PaymentStatus.AUTHORIZED, "4321", 12, 2028,
+            "USD", 10, null, authorizationCode)));
+
+    mvc.perform(MockMvcRequestBuilders.get("/payments/authorizations/" + authorizationCode))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(paymentId.toString()))
+        .andExpect(jsonPath("$.authorizationCode").value(authorizationCode.toString()));
+  }
+
+  @Test
+  void whenAuthorizationCodeUnknownThenReturnsNotFound() throws Exception {
+    UUID authorizationCode = UUID.randomUUID();
+    when(paymentGatewayService.findPaymentByAuthorizationCode(authorizationCode))
+        .thenReturn(Optional.empty());
+
+    mvc.perform(MockMvcRequestBuilders.get("/payments/authorizations/" + authorizationCode))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("Payment not found"));
+  }
+
+  @Test
+  void whenPaymentUnchangedSinceETagThenReturnsNotModified() throws Exception {
+    UUID paymentId = UUID.randomUUID();
+    when(paymentGatewayService.findPaymentById(paymentId)).thenReturn(Optional.of(
+        new GetPaymentResponse(paymentId, PaymentStatus.AUTHORIZED, "4321", 12, 2028, "USD", 10,
+            null, null)));
+
+    String etag = mvc.perform(MockMvcRequestBuilders.get("/payments/" + paymentId))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mvc.perform(MockMvcRequestBuilders.get("/payments/" + paymentId).header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
   }
 
   @Test
   void whenPaymentMissingThenReturnsNotFound() throws Exception {
     UUID nonExistentId = UUID.randomUUID();
     
-    when(paymentGatewayService.getPaymentById(nonExistentId))
-        .thenThrow(new PaymentNotFoundException("Invalid ID"));
+    when(paymentGatewayService.findPaymentById(nonExistentId)).thenReturn(Optional.empty());
 
     mvc.perform(MockMvcRequestBuilders.get("/payments/" + nonExistentId))
         .andExpect(status().isNotFound())
@@ -133,7 +218,7 @@ class PaymentGatewayControllerTest {
         }
         """, pastDate.getMonthValue(), pastDate.getYear());
 
-    when(paymentGatewayService.processPayment(any()))
+    when(paymentGatewayService.processPaymentAsync(any(), any()))
         .thenThrow(new ExpiredCardException("Card expiry date must be in the future"));
 
     mvc.perform(MockMvcRequestBuilders.post("/payments")
@@ -145,6 +230,82 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.status").value("Rejected"));
   }
 
+  @Test
+  void whenBankCallRejectedThenReturnsServiceUnavailable() throws Exception {
+    String validJson = """
+        {
+          "cardNumber": "1234567890123451",
+          "expiryMonth": 12,
+          "expiryYear": 2028,
+          "currency": "USD",
+          "amount": 1500,
+          "cvv": "123"
+        }
+        """;
+
+    when(paymentGatewayService.processPaymentAsync(any(), any())).thenReturn(
+        CompletableFuture.failedFuture(
+            new BankCallRejectedException("Bank circuit breaker is open")));
+
+    performAsync(MockMvcRequestBuilders.post("/payments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(validJson))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.message").value("Payment gateway is unavailable"));
+  }
+
+  @Test
+  void whenIdempotencyKeyHeaderPresentThenItIsPassedToService() throws Exception {
+    String validJson = """
+        {
+          "cardNumber": "1234567890123451",
+          "expiryMonth": 12,
+          "expiryYear": 2028,
+          "currency": "USD",
+          "amount": 1500,
+          "cvv": "123"
+        }
+        """;
+    UUID paymentId = UUID.randomUUID();
+    PostPaymentResponse response = new PostPaymentResponse(paymentId, PaymentStatus.AUTHORIZED,
+        "3451", 12, 2028, "USD", 1500, null);
+
+    when(paymentGatewayService.processPaymentAsync(any(), eq("order-42")))
+        .thenReturn(CompletableFuture.completedFuture(response));
+
+    performAsync(MockMvcRequestBuilders.post("/payments")
+            .header("Idempotency-Key", "order-42")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(validJson))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(paymentId.toString()));
+  }
+
+  @Test
+  void whenIdempotencyKeyReusedForDifferentRequestThenReturnsConflict() throws Exception {
+    String validJson = """
+        {
+          "cardNumber": "1234567890123451",
+          "expiryMonth": 12,
+          "expiryYear": 2028,
+          "currency": "USD",
+          "amount": 1500,
+          "cvv": "123"
+        }
+        """;
+
+    when(paymentGatewayService.processPaymentAsync(any(), eq("order-42")))
+        .thenReturn(CompletableFuture.failedFuture(new IdempotencyKeyConflictException(
+            "Idempotency key was already used for a different payment request")));
+
+    performAsync(MockMvcRequestBuilders.post("/payments")
+            .header("Idempotency-Key", "order-42")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(validJson))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+  }
+
   @Test
   void whenPostPaymentWithInvalidCardNumberThenReturnsRejected() throws Exception {
     String invalidCardJson = """
@@ -214,12 +375,14 @@ class PaymentGatewayControllerTest {
           12,
           2028,
           currency,
-          1500
+          1500,
+          null
       );
 
-      when(paymentGatewayService.processPayment(any())).thenReturn(response);
+      when(paymentGatewayService.processPaymentAsync(any(), any()))
+          .thenReturn(CompletableFuture.completedFuture(response));
 
-      mvc.perform(MockMvcRequestBuilders.post("/payments")
+      performAsync(MockMvcRequestBuilders.post("/payments")
               .contentType(MediaType.APPLICATION_JSON)
               .content(validCurrencyJson))
           .andExpect(status().isCreated())
@@ -289,4 +452,92 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
         .andExpect(jsonPath("$.status").value("Rejected"));
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenBulkPaymentsPostedThenResultsAreStreamedAsNdjson() throws Exception {
+    String results = """
+        {"id":"%s","status":"Authorized"}
+        {"message":"Validation failed: cvv: CVV is required","code":"VALIDATION_ERROR"}
+        """.formatted(UUID.randomUUID());
+    doAnswer(invocation -> {
+      OutputStream out = invocation.getArgument(1);
+      out.write(results.getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(bulkPaymentService).process(any(), any());
+
+    MvcResult result = mvc.perform(MockMvcRequestBuilders.post("/payments/bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content("{}\n{}\n"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string(results));
+  }
+
+  @Test
+  void whenPaymentsLookedUpThenFoundPaymentsAndMissingIdsAreReturned() throws Exception {
+    UUID found = UUID.randomUUID();
+    UUID missing = UUID.randomUUID();
+    when(paymentGatewayService.lookupPayments(List.of(found, missing))).thenReturn(
+        new PaymentLookupResponse(List.of(new GetPaymentResponse(found, PaymentStatus.AUTHORIZED,
+            "4321", 12, 2028, "USD", 10, null, null)), List.of(missing)));
+
+    mvc.perform(MockMvcRequestBuilders.post("/payments/lookup")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": [\"%s\", \"%s\"]}".formatted(found, missing)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments[0].id").value(found.toString()))
+        .andExpect(jsonPath("$.payments[0].status").value("Authorized"))
+        .andExpect(jsonPath("$.missing[0]").value(missing.toString()));
+  }
+
+  @Test
+  void whenLookupHasNoIdsThenReturnsRejected() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.post("/payments/lookup")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"ids\": []}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+  }
+
+  @Test
+  void whenPaymentsSearchedThenPageAndNextCursorAreReturned() throws Exception {
+    UUID id = UUID.randomUUID();
+    when(paymentGatewayService.searchPayments(new PaymentSearchRequest("Authorized", "USD", null,
+        null, null, null, 1))).thenReturn(Optional.of(new PaymentSearchResponse(List.of(
+            new GetPaymentResponse(id, PaymentStatus.AUTHORIZED, "4321", 12, 2028, "USD", 10, null,
+                null)), "1a2b")));
+
+    mvc.perform(MockMvcRequestBuilders.get("/payments?status=Authorized&currency=USD&limit=1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments[0].id").value(id.toString()))
+        .andExpect(jsonPath("$.nextCursor").value("1a2b"));
+  }
+
+  @Test
+  void whenSearchIsNotEnabledThenReturnsNotFound() throws Exception {
+    when(paymentGatewayService.searchPayments(new PaymentSearchRequest(null, null, null, null,
+        null, null, null))).thenReturn(Optional.empty());
+
+    mvc.perform(MockMvcRequestBuilders.get("/payments"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("Payment search is not enabled"));
+  }
+
+  @Test
+  void whenSearchHasInvalidLastFourThenReturnsRejected() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.get("/payments?lastFour=12ab"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+  }
+
+  private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+    MvcResult result = mvc.perform(requestBuilder)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    return mvc.perform(asyncDispatch(result));
+  }
+}
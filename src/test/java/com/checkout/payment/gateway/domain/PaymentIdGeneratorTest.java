@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentIdGeneratorTest {
+
+  private static final Instant NOW = Instant.parse("2030-05-15T12:00:00.123Z");
+
+  private final PaymentIdGenerator generator =
+      new PaymentIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+  @Test
+  void idsAreVersion7AndCarryTheirCreationTime() {
+    UUID id = generator.next();
+
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+    assertEquals(NOW, PaymentIdGenerator.createdAt(id));
+  }
+
+  @Test
+  void idsWithinOneMillisecondAreUnique() {
+    Set<UUID> ids = new HashSet<>();
+    for (int i = 0; i < 100_000; i++) {
+      ids.add(generator.next());
+    }
+
+    assertEquals(100_000, ids.size());
+  }
+
+  @Test
+  void idsSortByCreationTime() {
+    UUID earlier = generator.next();
+    UUID later = new PaymentIdGenerator(Clock.fixed(NOW.plusMillis(1), ZoneOffset.UTC)).next();
+
+    assertTrue(earlier.compareTo(later) < 0);
+    assertTrue(PaymentIdGenerator.lowerBound(NOW).compareTo(earlier) <= 0);
+    assertTrue(PaymentIdGenerator.lowerBound(NOW.plusMillis(1)).compareTo(earlier) > 0);
+  }
+
+  @Test
+  void lowerBoundPartWayThroughAMillisecondExcludesIdsFromThatMillisecond() {
+    UUID id = generator.next();
+
+    assertTrue(PaymentIdGenerator.lowerBound(NOW.plusNanos(1)).compareTo(id) > 0);
+    assertTrue(PaymentIdGenerator.lowerBound(NOW.minusNanos(1)).compareTo(id) <= 0);
+  }
+
+  @Test
+  void lowerBoundClampsInstantsOutsideTheTimestampRange() {
+    assertEquals(PaymentIdGenerator.lowerBound(Instant.EPOCH),
+        PaymentIdGenerator.lowerBound(Instant.MIN));
+    assertTrue(PaymentIdGenerator.lowerBound(Instant.MAX).compareTo(generator.next()) > 0);
+  }
+
+  @Test
+  void randomIdsHaveNoCreationTime() {
+    assertNull(PaymentIdGenerator.createdAt(UUID.randomUUID()));
+    assertNull(Payment.restore(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "4242", 12, 2099,
+        "USD", 1500).createdAt());
+  }
+}
@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.infrastructure.external.BankCallGuard;
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker;
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker.State;
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BankCallGuardTest {
+
+  @Test
+  void whenAsyncBankCallThrowsSynchronouslyThenPermitsAreReleased() {
+    AtomicLong now = new AtomicLong();
+    BankCircuitBreaker circuitBreaker = new BankCircuitBreaker(0.5, 1.0, Duration.ofSeconds(2),
+        10, 1, Duration.ofSeconds(10), 1, now::get);
+    BankConcurrencyLimiter limiter = new BankConcurrencyLimiter(1, Duration.ZERO);
+    BankCallGuard guard = new BankCallGuard(circuitBreaker, limiter,
+        new PaymentMetrics(new SimpleMeterRegistry()));
+
+    CompletableFuture<Object> failed = guard.callAsync(() -> {
+      throw new IllegalStateException("request could not be built");
+    });
+
+    CompletionException error = assertThrows(CompletionException.class, failed::join);
+    assertInstanceOf(IllegalStateException.class, error.getCause());
+    assertEquals(0, limiter.inFlight());
+    assertEquals(State.OPEN, circuitBreaker.state());
+
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    assertEquals("ok", guard.callAsync(() -> CompletableFuture.completedFuture("ok")).join());
+    assertEquals(State.CLOSED, circuitBreaker.state());
+  }
+}
@@ -0,0 +1,92 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker;
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker.State;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BankCircuitBreakerTest {
+
+  private static final long FAST = Duration.ofMillis(10).toNanos();
+  private static final long SLOW = Duration.ofSeconds(3).toNanos();
+
+  private final AtomicLong now = new AtomicLong();
+  private final BankCircuitBreaker circuitBreaker = new BankCircuitBreaker(0.5, 0.5,
+      Duration.ofSeconds(2), 10, 4, Duration.ofSeconds(10), 2, now::get);
+
+  @Test
+  void whenFailureRateReachesThresholdThenCircuitOpens() {
+    circuitBreaker.onSuccess(FAST);
+    circuitBreaker.onSuccess(FAST);
+    circuitBreaker.onError(FAST);
+    assertEquals(State.CLOSED, circuitBreaker.state());
+
+    circuitBreaker.onError(FAST);
+
+    assertEquals(State.OPEN, circuitBreaker.state());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+    assertEquals(1, circuitBreaker.transitionCount(State.OPEN));
+  }
+
+  @Test
+  void whenSlowCallRateReachesThresholdThenCircuitOpens() {
+    circuitBreaker.onSuccess(SLOW);
+    circuitBreaker.onSuccess(SLOW);
+    circuitBreaker.onSuccess(FAST);
+    circuitBreaker.onSuccess(FAST);
+
+    assertEquals(State.OPEN, circuitBreaker.state());
+  }
+
+  @Test
+  void whenFewerThanMinimumCallsThenCircuitStaysClosed() {
+    circuitBreaker.onError(FAST);
+    circuitBreaker.onError(FAST);
+    circuitBreaker.onError(FAST);
+
+    assertEquals(State.CLOSED, circuitBreaker.state());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+  }
+
+  @Test
+  void whenOpenDurationElapsedAndTrialCallsSucceedThenCircuitCloses() {
+    open();
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+    assertEquals(State.HALF_OPEN, circuitBreaker.state());
+
+    circuitBreaker.onSuccess(FAST);
+    circuitBreaker.onSuccess(FAST);
+
+    assertEquals(State.CLOSED, circuitBreaker.state());
+    assertEquals(1, circuitBreaker.transitionCount(State.CLOSED));
+  }
+
+  @Test
+  void whenTrialCallFailsThenCircuitReopens() {
+    open();
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+
+    circuitBreaker.onError(FAST);
+
+    assertEquals(State.OPEN, circuitBreaker.state());
+    assertEquals(2, circuitBreaker.transitionCount(State.OPEN));
+    assertFalse(circuitBreaker.tryAcquirePermission());
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      circuitBreaker.onError(FAST);
+    }
+    assertEquals(State.OPEN, circuitBreaker.state());
+  }
+}
@@ -0,0 +1,81 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BankConcurrencyLimiterTest {
+
+  @Test
+  void whenLimitReachedThenAcquireFailsAfterTimeout() {
+    BankConcurrencyLimiter limiter = new BankConcurrencyLimiter(2, Duration.ofMillis(10));
+
+    limiter.acquire();
+    limiter.acquire();
+
+    assertEquals(2, limiter.inFlight());
+    assertThrows(BankServiceException.class, limiter::acquire);
+    assertFalse(limiter.tryAcquire());
+  }
+
+  @Test
+  void whenPermitReleasedThenItCanBeAcquiredAgain() {
+    BankConcurrencyLimiter limiter = new BankConcurrencyLimiter(1, Duration.ZERO);
+
+    limiter.acquire();
+    limiter.release();
+
+    assertTrue(limiter.tryAcquire());
+    assertEquals(1, limiter.inFlight());
+  }
+
+  @Test
+  void whenBankCallsFailThenAdaptiveLimitBacksOffToMinimum() {
+    BankConcurrencyLimiter limiter = new BankConcurrencyLimiter(100, Duration.ZERO, true, 10,
+        Duration.ofSeconds(1));
+
+    limiter.onDropped();
+    assertEquals(90, limiter.limit());
+
+    for (int i = 0; i < 100; i++) {
+      limiter.onDropped();
+    }
+    assertEquals(10, limiter.limit());
+  }
+
+  @Test
+  void whenBankCallsAreFastThenAdaptiveLimitGrowsBackAdditively() {
+    BankConcurrencyLimiter limiter = new BankConcurrencyLimiter(20, Duration.ZERO, true, 10,
+        Duration.ofSeconds(1));
+    for (int i = 0; i < 10; i++) {
+      limiter.onDropped();
+    }
+    assertEquals(10, limiter.limit());
+
+    for (int i = 0; i < 11; i++) {
+      limiter.onSuccess(Duration.ofMillis(10).toNanos());
+    }
+
+    assertEquals(11, limiter.limit());
+  }
+
+  @Test
+  void whenLimitShrinksThenFewerPermitsAreAvailable() {
+    BankConcurrencyLimiter limiter = new BankConcurrencyLimiter(10, Duration.ZERO, true, 1,
+        Duration.ofSeconds(1));
+
+    limiter.onSuccess(Duration.ofSeconds(5).toNanos());
+
+    assertEquals(9, limiter.limit());
+    for (int i = 0; i < 9; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    assertFalse(limiter.tryAcquire());
+  }
+}
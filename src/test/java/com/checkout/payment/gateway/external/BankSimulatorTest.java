@@ -0,0 +1,124 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.infrastructure.external.BankSimulator;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankBatchItemResponse;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BankSimulatorTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private BankSimulator simulator;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    simulator = start(0, 0);
+  }
+
+  @AfterEach
+  void tearDown() {
+    simulator.close();
+  }
+
+  @Test
+  void whenCardNumberEndsInOddDigitThenPaymentIsAuthorized() throws Exception {
+    HttpResponse<byte[]> response = post(simulator.url(), createRequest("2222405343248877"));
+
+    assertEquals(200, response.statusCode());
+    BankPaymentResponse payment =
+        objectMapper.readValue(response.body(), BankPaymentResponse.class);
+    assertTrue(payment.authorized());
+    assertFalse(payment.authorizationCode().isEmpty());
+  }
+
+  @Test
+  void whenCardNumberEndsInEvenDigitThenPaymentIsDeclined() throws Exception {
+    HttpResponse<byte[]> response = post(simulator.url(), createRequest("2222405343248112"));
+
+    assertEquals(200, response.statusCode());
+    assertFalse(objectMapper.readValue(response.body(), BankPaymentResponse.class).authorized());
+  }
+
+  @Test
+  void whenCardNumberEndsInZeroThenBankIsUnavailable() throws Exception {
+    assertEquals(503, post(simulator.url(), createRequest("2222405343248110")).statusCode());
+  }
+
+  @Test
+  void whenFieldsAreMissingThenRequestIsRejected() throws Exception {
+    assertEquals(400, post(simulator.url(), "{\"card_number\":\"2222405343248877\"}").statusCode());
+  }
+
+  @Test
+  void whenBatchIsSentThenEachItemFollowsTheCardRules() throws Exception {
+    HttpResponse<byte[]> response = post(simulator.url() + "/batch", List.of(
+        createRequest("2222405343248877"),
+        createRequest("2222405343248112"),
+        createRequest("2222405343248110")));
+
+    BankBatchItemResponse[] items =
+        objectMapper.readValue(response.body(), BankBatchItemResponse[].class);
+    assertEquals(3, items.length);
+    assertTrue(items[0].authorized());
+    assertFalse(items[1].authorized());
+    assertEquals("Bank service is unavailable", items[2].errorMessage());
+  }
+
+  @Test
+  void whenFailureRateIsOneThenEveryCallFails() throws Exception {
+    try (BankSimulator failing = start(1, 0)) {
+      assertEquals(503, post(failing.url(), createRequest("2222405343248877")).statusCode());
+    }
+  }
+
+  @Test
+  void whenSeededThenAuthorizationCodesRepeat() throws Exception {
+    String first;
+    try (BankSimulator seeded = start(0, 42)) {
+      first = authorizationCode(seeded);
+    }
+    try (BankSimulator seeded = start(0, 42)) {
+      assertEquals(first, authorizationCode(seeded));
+    }
+  }
+
+  private BankSimulator start(double failureRate, long seed) throws IOException {
+    return new BankSimulator(objectMapper, new BankSimulator.Settings(0, Duration.ofMillis(1),
+        Duration.ofMillis(5), failureRate, 0, seed));
+  }
+
+  private String authorizationCode(BankSimulator bank) throws Exception {
+    return objectMapper.readValue(post(bank.url(), createRequest("2222405343248877")).body(),
+        BankPaymentResponse.class).authorizationCode();
+  }
+
+  private HttpResponse<byte[]> post(String url, Object body) throws Exception {
+    byte[] bytes = body instanceof String json ? json.getBytes()
+        : objectMapper.writeValueAsBytes(body);
+    return httpClient.send(HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(bytes))
+            .build(),
+        HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  private static BankPaymentRequest createRequest(String cardNumber) {
+    return new BankPaymentRequest(cardNumber, "04/30", "GBP", 100, "123");
+  }
+}
@@ -0,0 +1,215 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.infrastructure.external.BankCallGuard;
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker;
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import com.checkout.payment.gateway.infrastructure.external.BatchingBankClient;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankBatchItemResponse;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentRequest;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchingBankClientTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PaymentMetrics metrics = new PaymentMetrics(meterRegistry);
+  private volatile int batchStatus = 200;
+  // Batch calls answered with batchStatus before the bank recovers; negative means never.
+  private volatile int failuresLeft = -1;
+  private int maxAttempts = 3;
+  private int breakerMinimumCalls = 10;
+  private HttpServer bank;
+  private BatchingBankClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    bank = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    bank.createContext("/payments/batch", exchange -> {
+      BankPaymentRequest[] requests = objectMapper.readValue(exchange.getRequestBody(),
+          BankPaymentRequest[].class);
+      batchSizes.add(requests.length);
+      if (batchStatus != 200 && failuresLeft-- != 0) {
+        exchange.sendResponseHeaders(batchStatus, -1);
+        exchange.close();
+        return;
+      }
+      List<BankBatchItemResponse> items = new ArrayList<>();
+      for (BankPaymentRequest request : requests) {
+        int lastDigit = request.cardNumber().charAt(request.cardNumber().length() - 1) - '0';
+        if (lastDigit == 0) {
+          items.add(new BankBatchItemResponse(false, null, "Bank service is unavailable"));
+        } else {
+          boolean authorized = lastDigit % 2 == 1;
+          items.add(new BankBatchItemResponse(authorized, authorized ? "code" : "", null));
+        }
+      }
+      byte[] response = objectMapper.writeValueAsBytes(items);
+      exchange.sendResponseHeaders(200, response.length);
+      exchange.getResponseBody().write(response);
+      exchange.close();
+    });
+    bank.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    client.close();
+    bank.stop(0);
+  }
+
+  @Test
+  void whenRequestsArriveWithinWindowThenTheyShareOneBatch() {
+    client = createClient(64, Duration.ofMillis(200));
+
+    CompletableFuture<BankPaymentResponse> authorized = client.processPayment(
+        createRequest("1234567890123451"));
+    CompletableFuture<BankPaymentResponse> declined = client.processPayment(
+        createRequest("1234567890123452"));
+    CompletableFuture<BankPaymentResponse> alsoAuthorized = client.processPayment(
+        createRequest("1234567890123453"));
+
+    assertTrue(authorized.join().authorized());
+    assertFalse(declined.join().authorized());
+    assertTrue(alsoAuthorized.join().authorized());
+    assertEquals(List.of(3), batchSizes);
+  }
+
+  @Test
+  void whenBatchIsFullThenItIsFlushedWithoutWaitingForWindow() {
+    client = createClient(2, Duration.ofSeconds(30));
+
+    List<CompletableFuture<BankPaymentResponse>> results = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      results.add(client.processPayment(createRequest("1234567890123451")));
+    }
+
+    results.forEach(CompletableFuture::join);
+    assertEquals(List.of(2, 2), batchSizes);
+  }
+
+  @Test
+  void whenOneItemFailsThenOnlyItsCallerSeesTheError() {
+    client = createClient(64, Duration.ofMillis(200));
+
+    CompletableFuture<BankPaymentResponse> failing = client.processPayment(
+        createRequest("1234567890123450"));
+    CompletableFuture<BankPaymentResponse> succeeding = client.processPayment(
+        createRequest("1234567890123451"));
+
+    CompletionException exception = assertThrows(CompletionException.class, failing::join);
+    assertInstanceOf(BankServiceException.class, exception.getCause());
+    assertTrue(succeeding.join().authorized());
+  }
+
+  @Test
+  void whenBatchCallFailsThenEveryCallerSeesTheError() {
+    batchStatus = 503;
+    client = createClient(64, Duration.ofMillis(50));
+
+    CompletableFuture<BankPaymentResponse> first = client.processPayment(
+        createRequest("1234567890123451"));
+    CompletableFuture<BankPaymentResponse> second = client.processPayment(
+        createRequest("1234567890123453"));
+
+    assertInstanceOf(BankServiceException.class,
+        assertThrows(CompletionException.class, first::join).getCause());
+    assertInstanceOf(BankServiceException.class,
+        assertThrows(CompletionException.class, second::join).getCause());
+  }
+
+  @Test
+  void whenBatchCompletesThenEachPaymentIsRecordedUnderItsOutcome() {
+    client = createClient(64, Duration.ofMillis(200));
+
+    CompletableFuture<BankPaymentResponse> authorized = client.processPayment(
+        createRequest("1234567890123451"));
+    CompletableFuture<BankPaymentResponse> declined = client.processPayment(
+        createRequest("1234567890123452"));
+    CompletableFuture<BankPaymentResponse> failing = client.processPayment(
+        createRequest("1234567890123450"));
+
+    authorized.join();
+    declined.join();
+    assertThrows(CompletionException.class, failing::join);
+    assertEquals(1, bankCalls("authorized"));
+    assertEquals(1, bankCalls("declined"));
+    assertEquals(1, bankCalls("unavailable"));
+  }
+
+  @Test
+  void whenBankIsBrieflyUnavailableThenBatchIsRetried() {
+    batchStatus = 503;
+    failuresLeft = 1;
+    client = createClient(64, Duration.ofMillis(50));
+
+    assertTrue(client.processPayment(createRequest("1234567890123451")).join().authorized());
+    assertEquals(List.of(1, 1), batchSizes);
+    assertEquals(1, meterRegistry.get("bank.retries").counter().count());
+  }
+
+  @Test
+  void whenCircuitBreakerOpensThenBatchesAreRejectedWithoutCallingTheBank() {
+    batchStatus = 503;
+    maxAttempts = 1;
+    breakerMinimumCalls = 1;
+    client = createClient(64, Duration.ofMillis(50));
+
+    CompletableFuture<BankPaymentResponse> failed = client.processPayment(
+        createRequest("1234567890123451"));
+    assertInstanceOf(BankUnavailableException.class,
+        assertThrows(CompletionException.class, failed::join).getCause());
+
+    CompletableFuture<BankPaymentResponse> rejected = client.processPayment(
+        createRequest("1234567890123451"));
+    assertInstanceOf(BankCallRejectedException.class,
+        assertThrows(CompletionException.class, rejected::join).getCause());
+    assertEquals(List.of(1), batchSizes);
+    assertEquals(1, bankCalls("rejected"));
+  }
+
+  private BatchingBankClient createClient(int maxBatchSize, Duration window) {
+    String url = "http://localhost:" + bank.getAddress().getPort() + "/payments/batch";
+    BankCallGuard callGuard = new BankCallGuard(
+        new BankCircuitBreaker(0.5, 1.0, Duration.ofSeconds(2), 10, breakerMinimumCalls,
+            Duration.ofMinutes(1), 1, System::nanoTime),
+        new BankConcurrencyLimiter(10, Duration.ZERO), metrics);
+    return new BatchingBankClient(HttpClient.newHttpClient(), objectMapper, url,
+        Duration.ofSeconds(5), maxBatchSize, window, 100, callGuard, metrics, maxAttempts,
+        Duration.ofMillis(1), Duration.ofSeconds(5));
+  }
+
+  private long bankCalls(String outcome) {
+    return meterRegistry.get("bank.calls").tag("outcome", outcome).timer().count();
+  }
+
+  private static PostPaymentRequest createRequest(String cardNumber) {
+    return new PostPaymentRequest(cardNumber, 4, 2030, "USD", 1000, "123");
+  }
+}
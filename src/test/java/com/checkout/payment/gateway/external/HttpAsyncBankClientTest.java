@@ -0,0 +1,155 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.infrastructure.external.HttpAsyncBankClient;
+import com.checkout.payment.gateway.infrastructure.external.BankCallGuard;
+import com.checkout.payment.gateway.infrastructure.external.BankCircuitBreaker;
+import com.checkout.payment.gateway.infrastructure.external.BankConcurrencyLimiter;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HttpAsyncBankClientTest {
+
+  private final AtomicReference<String> lastRequestBody = new AtomicReference<>();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+  private HttpServer bank;
+  private String url;
+  private HttpAsyncBankClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    bank = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    bank.createContext("/payments", exchange -> {
+      String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      lastRequestBody.set(body);
+      int request = requests.incrementAndGet();
+      if (body.contains("\"card_number\":\"1234567890123450\"")
+          || body.contains("\"card_number\":\"1234567890123452\"") && request == 1) {
+        exchange.sendResponseHeaders(503, -1);
+      } else if (body.contains("\"card_number\":\"1234567890123453\"")) {
+        exchange.sendResponseHeaders(400, -1);
+      } else {
+        if (body.contains("\"card_number\":\"1234567890123454\"") && request == 1) {
+          sleep(Duration.ofSeconds(2));
+        }
+        byte[] response = "{\"authorized\":true,\"authorization_code\":\"abc\"}"
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        exchange.getResponseBody().write(response);
+      }
+      exchange.close();
+    });
+    bank.setExecutor(Executors.newCachedThreadPool());
+    bank.start();
+
+    url = "http://localhost:" + bank.getAddress().getPort() + "/payments";
+    client = createClient(3, false);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bank.stop(0);
+  }
+
+  @Test
+  void whenBankAuthorizesThenResponseIsParsed() {
+    BankPaymentResponse response = client.processPayment(createRequest("1234567890123451")).join();
+
+    assertTrue(response.authorized());
+    assertEquals("abc", response.authorizationCode());
+    assertTrue(lastRequestBody.get().contains("\"expiry_date\":\"04/30\""));
+  }
+
+  @Test
+  void whenBankIsUnavailableThenCompletesWithBankServiceException() {
+    CompletionException exception = assertThrows(CompletionException.class,
+        () -> client.processPayment(createRequest("1234567890123450")).join());
+
+    assertInstanceOf(BankServiceException.class, exception.getCause());
+    assertEquals("Bank service is unavailable", exception.getCause().getMessage());
+  }
+
+  @Test
+  void whenBankIsUnreachableThenCompletesWithBankServiceException() {
+    bank.stop(0);
+
+    CompletionException exception = assertThrows(CompletionException.class,
+        () -> client.processPayment(createRequest("1234567890123451")).join());
+
+    assertInstanceOf(BankServiceException.class, exception.getCause());
+  }
+
+  @Test
+  void whenBankIsBrieflyUnavailableThenPaymentIsRetried() {
+    BankPaymentResponse response = client.processPayment(createRequest("1234567890123452")).join();
+
+    assertTrue(response.authorized());
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  void whenBankRejectsRequestThenItIsNotRetried() {
+    CompletionException exception = assertThrows(CompletionException.class,
+        () -> client.processPayment(createRequest("1234567890123453")).join());
+
+    assertEquals("Bad request from the client", exception.getCause().getMessage());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  void whenBankIsSlowThenHedgedRequestAnswers() {
+    HttpAsyncBankClient hedgingClient = createClient(1, true);
+
+    long start = System.nanoTime();
+    BankPaymentResponse response =
+        hedgingClient.processPayment(createRequest("1234567890123454")).join();
+
+    assertTrue(response.authorized());
+    assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+  }
+
+  private HttpAsyncBankClient createClient(int maxAttempts, boolean hedging) {
+    return new HttpAsyncBankClient(HttpClient.newHttpClient(), new ObjectMapper(), url,
+        Duration.ofSeconds(5), new BankCallGuard(
+            new BankCircuitBreaker(0.5, 0.5, Duration.ofSeconds(2), 10, 10, Duration.ofSeconds(1),
+                1, System::nanoTime),
+            new BankConcurrencyLimiter(10, Duration.ZERO), metrics),
+        metrics, maxAttempts, Duration.ofMillis(1), Duration.ofSeconds(5), hedging,
+        Duration.ofMillis(50));
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static PostPaymentRequest createRequest(String cardNumber) {
+    return new PostPaymentRequest(cardNumber, 4, 2030, "USD", 1000, "123");
+  }
+}
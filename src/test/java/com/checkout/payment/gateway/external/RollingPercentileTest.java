@@ -0,0 +1,33 @@
+package com.checkout.payment.gateway.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.checkout.payment.gateway.infrastructure.external.RollingPercentile;
+import org.junit.jupiter.api.Test;
+
+class RollingPercentileTest {
+
+  @Test
+  void whenTooFewSamplesRecordedThenPercentileIsZero() {
+    RollingPercentile p95 = new RollingPercentile(0.95);
+    for (int i = 1; i < 64; i++) {
+      p95.record(i);
+    }
+
+    assertEquals(0, p95.get());
+  }
+
+  @Test
+  void whenSamplesRecordedThenPercentileFollowsTheMostRecent() {
+    RollingPercentile p95 = new RollingPercentile(0.95);
+    for (int i = 1; i <= 1000; i++) {
+      p95.record(i);
+    }
+    assertEquals(912, p95.get());
+
+    for (int i = 0; i < 1024; i++) {
+      p95.record(5);
+    }
+    assertEquals(5, p95.get());
+  }
+}
@@ -0,0 +1,50 @@
+package com.checkout.payment.gateway.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+class PaymentMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final PaymentMetrics metrics = new PaymentMetrics(registry);
+
+  @Test
+  void whenBankCallsCompleteThenEachIsTimedUnderItsOutcome() {
+    metrics.recordBankCall(new BankPaymentResponse(true, "code"), null, 1_000);
+    metrics.recordBankCall(new BankPaymentResponse(false, null), null, 1_000);
+    metrics.recordBankCall(null, new BankServiceException("Bank service is unavailable"), 1_000);
+    metrics.recordBankCall(null, new CompletionException(new BankServiceException(
+        "Bank service error", new HttpTimeoutException("request timed out"))), 1_000);
+    metrics.recordBankCall(null, new BankCallRejectedException("Bank circuit breaker is open"), 0);
+
+    for (String outcome : new String[] {"authorized", "declined", "unavailable", "timeout",
+        "rejected"}) {
+      assertEquals(1, bankCalls(outcome), outcome);
+    }
+  }
+
+  @Test
+  void whenRejectionRecordedThenCounterForCodeIsIncremented() {
+    metrics.recordRejection("VALIDATION_ERROR");
+    metrics.recordRejection("VALIDATION_ERROR");
+    metrics.recordRejection("SOMETHING_NEW");
+
+    assertEquals(2, registry.get("payments.rejected").tag("code", "VALIDATION_ERROR").counter()
+        .count());
+    assertEquals(0, registry.get("payments.rejected").tag("code", "EXPIRED_CARD").counter()
+        .count());
+    assertEquals(1, registry.get("payments.rejected").tag("code", "SOMETHING_NEW").counter()
+        .count());
+  }
+
+  private long bankCalls(String outcome) {
+    return registry.get("bank.calls").tag("outcome", outcome).timer().count();
+  }
+}
@@ -0,0 +1,169 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.checkout.payment.gateway.support.MutableClock;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class BoundedInMemoryPaymentsRepositoryTest {
+
+  @Test
+  void addAndGetByIdReturnsSamePayment() {
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(10, Duration.ofMinutes(5), Clock.systemUTC());
+    Payment expected = authorizedPayment(UUID.randomUUID());
+
+    repo.add(expected);
+
+    assertEquals(expected, repo.get(expected.id()).orElseThrow());
+  }
+
+  @Test
+  void whenCapacityExceededThenOldestPaymentIsEvicted() {
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(2, Duration.ZERO, Clock.systemUTC());
+    Payment first = authorizedPayment(UUID.randomUUID());
+    Payment second = authorizedPayment(UUID.randomUUID());
+    Payment third = authorizedPayment(UUID.randomUUID());
+
+    repo.add(first);
+    repo.add(second);
+    repo.add(third);
+
+    assertTrue(repo.get(first.id()).isEmpty());
+    assertTrue(repo.get(second.id()).isPresent());
+    assertTrue(repo.get(third.id()).isPresent());
+    assertEquals(2, repo.size());
+    assertEquals(1, repo.evictionCount());
+  }
+
+  @Test
+  void whenPaymentEvictedThenItIsNoLongerFoundByAuthorizationCode() {
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(1, Duration.ZERO, Clock.systemUTC());
+    UUID code = UUID.randomUUID();
+    Payment first = authorizedPayment(UUID.randomUUID());
+    first.processBankResponse(true, code.toString());
+
+    repo.add(first);
+    assertEquals(first.id(), repo.findByAuthorizationCode(code).orElseThrow().id());
+
+    repo.add(authorizedPayment(UUID.randomUUID()));
+    assertTrue(repo.findByAuthorizationCode(code).isEmpty());
+  }
+
+  @Test
+  void whenTtlElapsedThenPaymentIsExpired() {
+    MutableClock clock = new MutableClock();
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(10, Duration.ofSeconds(30), clock);
+    Payment payment = authorizedPayment(UUID.randomUUID());
+
+    repo.add(payment);
+    clock.advance(Duration.ofSeconds(29));
+    assertTrue(repo.get(payment.id()).isPresent());
+
+    clock.advance(Duration.ofSeconds(1));
+    assertTrue(repo.get(payment.id()).isEmpty());
+    assertEquals(1, repo.expirationCount());
+  }
+
+  @Test
+  void getAllSkipsExpiredPayments() {
+    MutableClock clock = new MutableClock();
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(10, Duration.ofSeconds(30), clock);
+    UUID old = UUID.randomUUID();
+    repo.add(authorizedPayment(old));
+    clock.advance(Duration.ofSeconds(20));
+    UUID recent = UUID.randomUUID();
+    repo.add(authorizedPayment(recent));
+    clock.advance(Duration.ofSeconds(15));
+
+    Map<UUID, Payment> found = repo.getAll(List.of(old, recent));
+
+    assertEquals(List.of(recent), List.copyOf(found.keySet()));
+  }
+
+  @Test
+  void whenNewPaymentAddedThenExpiredPaymentsAreSwept() {
+    MutableClock clock = new MutableClock();
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(10, Duration.ofSeconds(30), clock);
+
+    repo.add(authorizedPayment(UUID.randomUUID()));
+    repo.add(authorizedPayment(UUID.randomUUID()));
+    clock.advance(Duration.ofMinutes(1));
+    repo.add(authorizedPayment(UUID.randomUUID()));
+
+    assertEquals(1, repo.size());
+    assertEquals(2, repo.expirationCount());
+  }
+
+  @Test
+  void forEachCreatedBetweenFollowsEvictionsAndReAdds() {
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(2, Duration.ZERO, Clock.systemUTC());
+    Instant start = Instant.parse("2029-06-01T00:00:00Z");
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      payments.add(authorizedPayment(new PaymentIdGenerator(
+          Clock.fixed(start.plusSeconds(i), ZoneOffset.UTC)).next()));
+    }
+    payments.forEach(repo::add);
+
+    List<UUID> afterEviction = new ArrayList<>();
+    repo.forEachCreatedBetween(start, start.plusSeconds(3), p -> afterEviction.add(p.id()));
+    repo.add(payments.get(0));
+    List<UUID> afterReAdd = new ArrayList<>();
+    repo.forEachCreatedBetween(start, start.plusSeconds(3), p -> afterReAdd.add(p.id()));
+
+    assertEquals(List.of(payments.get(1).id(), payments.get(2).id()), afterEviction);
+    assertEquals(List.of(payments.get(0).id(), payments.get(2).id()), afterReAdd);
+  }
+
+  @Test
+  void concurrentAddsAreNotLost() throws Exception {
+    BoundedInMemoryPaymentsRepository repo =
+        new BoundedInMemoryPaymentsRepository(100_000, Duration.ZERO, Clock.systemUTC());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<List<UUID>>> futures = new ArrayList<>();
+
+    for (int t = 0; t < 8; t++) {
+      futures.add(executor.submit(() -> {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+          Payment payment = authorizedPayment(UUID.randomUUID());
+          repo.add(payment);
+          ids.add(payment.id());
+        }
+        return ids;
+      }));
+    }
+
+    for (Future<List<UUID>> future : futures) {
+      for (UUID id : future.get()) {
+        assertTrue(repo.get(id).isPresent());
+      }
+    }
+    executor.shutdown();
+    assertEquals(8_000, repo.size());
+    assertEquals(0, repo.evictionCount());
+  }
+}
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.checkout.payment.gateway.domain.Payment;
 import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
 import com.checkout.payment.gateway.domain.PaymentStatus;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
@@ -38,6 +40,35 @@ class InMemoryPaymentsRepositoryTest {
     Optional<Payment> found = repo.get(UUID.randomUUID());
     assertTrue(found.isEmpty());
   }
+
+  @Test
+  void getAllReturnsOnlyStoredPaymentsInRequestOrder() {
+    PaymentsRepository repo = new InMemoryPaymentsRepository();
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID missing = UUID.randomUUID();
+    repo.add(new Payment(first, PaymentStatus.AUTHORIZED, "1234", 8, 2030, "USD", 100));
+    repo.add(new Payment(second, PaymentStatus.DECLINED, "5678", 8, 2030, "EUR", 200));
+
+    Map<UUID, Payment> found = repo.getAll(List.of(second, missing, first));
+
+    assertEquals(List.of(second, first), List.copyOf(found.keySet()));
+    assertEquals(200, found.get(second).amount());
+  }
+
+  @Test
+  void findByAuthorizationCodeReturnsAuthorizedPayment() {
+    PaymentsRepository repo = new InMemoryPaymentsRepository();
+    UUID code = UUID.randomUUID();
+    Payment payment = new Payment(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "1234", 8, 2030,
+        "USD", 100);
+    payment.processBankResponse(true, code.toString());
+
+    repo.add(payment);
+
+    assertEquals(payment.id(), repo.findByAuthorizationCode(code).orElseThrow().id());
+    assertTrue(repo.findByAuthorizationCode(UUID.randomUUID()).isEmpty());
+  }
 }
 
 
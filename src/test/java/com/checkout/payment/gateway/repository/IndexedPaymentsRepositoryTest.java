@@ -0,0 +1,242 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.domain.repository.PaymentCursor;
+import com.checkout.payment.gateway.domain.repository.PaymentPage;
+import com.checkout.payment.gateway.domain.repository.PaymentSearchCriteria;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.support.MutableClock;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class IndexedPaymentsRepositoryTest {
+
+  private static final PaymentSearchCriteria ANY =
+      new PaymentSearchCriteria(null, null, null, null, null);
+
+  private final MutableClock clock = new MutableClock();
+  private final IndexedPaymentsRepository repo =
+      new IndexedPaymentsRepository(new InMemoryPaymentsRepository(), clock);
+
+  @Test
+  void searchFiltersOnEveryCriterionNewestFirst() {
+    Payment oldUsd = add(PaymentStatus.AUTHORIZED, "USD", "1111");
+    add(PaymentStatus.DECLINED, "USD", "1111");
+    add(PaymentStatus.AUTHORIZED, "GBP", "1111");
+    add(PaymentStatus.AUTHORIZED, "USD", "2222");
+    Payment newUsd = add(PaymentStatus.AUTHORIZED, "USD", "1111");
+
+    PaymentPage page = repo.search(
+        new PaymentSearchCriteria(PaymentStatus.AUTHORIZED, "USD", "1111", null, null), null, 10);
+
+    assertEquals(List.of(newUsd, oldUsd), page.payments());
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  void cursorWalksPagesWithoutRepeats() {
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      payments.add(add(PaymentStatus.AUTHORIZED, "EUR", "4242"));
+    }
+
+    List<Payment> seen = new ArrayList<>();
+    PaymentCursor cursor = null;
+    int pages = 0;
+    do {
+      PaymentPage page = repo.search(ANY, cursor, 3);
+      seen.addAll(page.payments());
+      cursor = page.nextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(payments.reversed(), seen);
+  }
+
+  @Test
+  void timeRangeIncludesFromAndExcludesTo() {
+    Instant start = clock.instant();
+    add(PaymentStatus.AUTHORIZED, "USD", "1111");
+    clock.advance(Duration.ofMinutes(1));
+    Payment inRange = add(PaymentStatus.AUTHORIZED, "USD", "1111");
+    clock.advance(Duration.ofMinutes(1));
+    add(PaymentStatus.AUTHORIZED, "USD", "1111");
+
+    PaymentPage page = repo.search(new PaymentSearchCriteria(null, "USD", null,
+        start.plus(Duration.ofMinutes(1)), start.plus(Duration.ofMinutes(2))), null, 10);
+
+    assertEquals(List.of(inRange), page.payments());
+  }
+
+  @Test
+  void whenPaymentIsStoredAgainThenIndexesFollowItsNewStatus() {
+    Payment payment = add(PaymentStatus.AUTHORIZED, "USD", "1111");
+    Payment declined = Payment.restore(payment.id(), PaymentStatus.DECLINED, "1111", 12, 2030,
+        "USD", 100);
+
+    repo.add(declined);
+
+    assertTrue(repo.search(new PaymentSearchCriteria(PaymentStatus.AUTHORIZED, null, null, null,
+        null), null, 10).payments().isEmpty());
+    assertEquals(List.of(declined), repo.search(new PaymentSearchCriteria(
+        PaymentStatus.DECLINED, null, null, null, null), null, 10).payments());
+  }
+
+  @Test
+  void paymentsAlreadyInTheStoreAreIndexedOnConstruction() {
+    InMemoryPaymentsRepository store = new InMemoryPaymentsRepository();
+    Instant start = Instant.parse("2029-06-01T00:00:00Z");
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      payments.add(Payment.restore(new PaymentIdGenerator(
+          Clock.fixed(start.plusSeconds(i), ZoneOffset.UTC)).next(), PaymentStatus.AUTHORIZED,
+          "1111", 12, 2030, "USD", 100));
+    }
+    payments.reversed().forEach(store::add);
+
+    IndexedPaymentsRepository rebuilt = new IndexedPaymentsRepository(store, clock);
+
+    assertEquals(payments.reversed(), rebuilt.search(ANY, null, 10).payments());
+  }
+
+  @Test
+  void paymentsEvictedFromStoreAreDroppedFromResults() {
+    IndexedPaymentsRepository bounded = new IndexedPaymentsRepository(
+        new BoundedInMemoryPaymentsRepository(2, Duration.ZERO, Clock.systemUTC()), clock);
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Payment payment = createPayment(PaymentStatus.AUTHORIZED, "USD", "1111");
+      bounded.add(payment);
+      payments.add(payment);
+    }
+
+    assertEquals(List.of(payments.get(2), payments.get(1)),
+        bounded.search(ANY, null, 10).payments());
+  }
+
+  @Test
+  void paymentsEvictedOrExpiredByStoreAreUnindexedStraightAway() {
+    MutableClock storeClock = new MutableClock();
+    IndexedPaymentsRepository bounded = new IndexedPaymentsRepository(
+        new BoundedInMemoryPaymentsRepository(2, Duration.ofMinutes(1), storeClock), clock);
+    for (int i = 0; i < 3; i++) {
+      bounded.add(createPayment(PaymentStatus.AUTHORIZED, "USD", "1111"));
+    }
+    assertEquals(2, bounded.indexedCount());
+
+    storeClock.advance(Duration.ofMinutes(2));
+    Payment fresh = createPayment(PaymentStatus.AUTHORIZED, "USD", "1111");
+    bounded.add(fresh);
+
+    assertEquals(1, bounded.indexedCount());
+    assertEquals(List.of(fresh), bounded.search(ANY, null, 10).payments());
+  }
+
+  @Test
+  void paymentsMissingFromStoreDoNotCountTowardThePage() {
+    ForgetfulStore store = new ForgetfulStore();
+    IndexedPaymentsRepository forgetful = new IndexedPaymentsRepository(store, clock);
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Payment payment = createPayment(PaymentStatus.AUTHORIZED, "USD", "1111");
+      forgetful.add(payment);
+      payments.add(payment);
+    }
+    store.forget(payments.get(4).id());
+    store.forget(payments.get(3).id());
+
+    PaymentPage first = forgetful.search(ANY, null, 2);
+    PaymentPage second = forgetful.search(ANY, first.nextCursor(), 2);
+
+    assertEquals(List.of(payments.get(2), payments.get(1)), first.payments());
+    assertEquals(List.of(payments.get(0)), second.payments());
+    assertNull(second.nextCursor());
+    assertEquals(3, forgetful.indexedCount());
+  }
+
+  @Test
+  void timeOrderedIdsAreIndexedByCreationTimeNotStorageTime() {
+    Instant created = Instant.parse("2029-06-01T00:00:00Z");
+    Payment payment = Payment.restore(new PaymentIdGenerator(Clock.fixed(created,
+        ZoneOffset.UTC)).next(), PaymentStatus.AUTHORIZED, "1111", 12, 2030, "USD", 100);
+    repo.add(payment);
+    add(PaymentStatus.AUTHORIZED, "USD", "1111");
+
+    PaymentPage page = repo.search(new PaymentSearchCriteria(null, null, null, created,
+        created.plusSeconds(1)), null, 10);
+
+    assertEquals(List.of(payment), page.payments());
+  }
+
+  @Test
+  void forEachCreatedBetweenVisitsTimeOrderedPaymentsOldestFirst() {
+    Instant start = Instant.parse("2029-06-01T00:00:00Z");
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Payment payment = Payment.restore(new PaymentIdGenerator(Clock.fixed(
+              start.plusSeconds(i), ZoneOffset.UTC)).next(), PaymentStatus.AUTHORIZED, "1111",
+          12, 2030, "USD", 100);
+      payments.add(payment);
+    }
+    payments.reversed().forEach(repo::add);
+    add(PaymentStatus.AUTHORIZED, "USD", "1111");
+
+    List<Payment> visited = new ArrayList<>();
+    repo.forEachCreatedBetween(start.plusSeconds(1), start.plusSeconds(4), visited::add);
+
+    assertEquals(payments.subList(1, 4), visited);
+  }
+
+  @Test
+  void whenCursorIsMalformedThenItDoesNotParse() {
+    assertThrows(IllegalArgumentException.class, () -> PaymentCursor.parse("not-a-cursor"));
+  }
+
+  private Payment add(PaymentStatus status, String currency, String lastFour) {
+    Payment payment = createPayment(status, currency, lastFour);
+    repo.add(payment);
+    return payment;
+  }
+
+  private static Payment createPayment(PaymentStatus status, String currency, String lastFour) {
+    return Payment.restore(UUID.randomUUID(), status, lastFour, 12, 2030, currency, 100);
+  }
+
+  /** Drops payments without telling anyone, as a store that evicts on its own would. */
+  private static final class ForgetfulStore extends InMemoryPaymentsRepository {
+
+    private final Set<UUID> forgotten = ConcurrentHashMap.newKeySet();
+
+    void forget(UUID id) {
+      forgotten.add(id);
+    }
+
+    @Override
+    public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+      Map<UUID, Payment> found = new LinkedHashMap<>(super.getAll(ids));
+      found.keySet().removeAll(forgotten);
+      return found;
+    }
+  }
+}
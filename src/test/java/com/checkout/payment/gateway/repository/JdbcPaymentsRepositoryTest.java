@@ -0,0 +1,187 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.infrastructure.repository.JdbcPaymentsRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JdbcPaymentsRepositoryTest {
+
+  private JdbcPaymentsRepository repo;
+
+  @BeforeEach
+  void setUp() {
+    repo = new JdbcPaymentsRepository(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", 4, 16);
+  }
+
+  @AfterEach
+  void tearDown() {
+    repo.close();
+  }
+
+  @Test
+  void addAndGetByIdReturnsEquivalentPayment() {
+    UUID code = UUID.randomUUID();
+    Payment expected = new Payment(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "1234567890120042",
+        8, 2030, "GBP", 100);
+    expected.processBankResponse(true, code.toString());
+
+    repo.add(expected);
+
+    Payment found = repo.get(expected.id()).orElseThrow();
+    assertEquals(expected.id(), found.id());
+    assertEquals(expected.status(), found.status());
+    assertEquals("0042", found.cardNumberLastFour());
+    assertEquals(expected.expiryMonth(), found.expiryMonth());
+    assertEquals(expected.expiryYear(), found.expiryYear());
+    assertEquals(expected.currency(), found.currency());
+    assertEquals(expected.amount(), found.amount());
+    assertEquals(code, found.authorizationCode());
+    assertTrue(repo.get(UUID.randomUUID()).isEmpty());
+  }
+
+  @Test
+  void findByAuthorizationCodeReturnsAuthorizedPayment() {
+    UUID code = UUID.randomUUID();
+    Payment authorized = authorizedPayment(UUID.randomUUID());
+    authorized.processBankResponse(true, code.toString());
+    Payment declined = authorizedPayment(UUID.randomUUID());
+    declined.processBankResponse(false, "");
+
+    repo.add(authorized);
+    repo.add(declined);
+
+    assertEquals(authorized.id(), repo.findByAuthorizationCode(code).orElseThrow().id());
+    assertTrue(repo.findByAuthorizationCode(UUID.randomUUID()).isEmpty());
+    assertEquals(null, repo.get(declined.id()).orElseThrow().authorizationCode());
+  }
+
+  @Test
+  void getAllReturnsOnlyStoredPaymentsInRequestOrder() {
+    List<UUID> ids = new ArrayList<>();
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Payment payment = authorizedPayment(UUID.randomUUID());
+      payments.add(payment);
+      ids.add(0, payment.id());
+    }
+    repo.addAll(payments);
+    UUID missing = UUID.randomUUID();
+    ids.add(1, missing);
+
+    Map<UUID, Payment> found = repo.getAll(ids);
+
+    ids.remove(missing);
+    assertEquals(ids, List.copyOf(found.keySet()));
+    assertEquals(300, repo.size());
+  }
+
+  @Test
+  void addingSameIdTwiceOverwritesRow() {
+    UUID id = UUID.randomUUID();
+
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "1111", 1, 2030, "USD", 10));
+    repo.add(Payment.restore(id, PaymentStatus.DECLINED, "2222", 2, 2031, "EUR", 20));
+
+    Payment found = repo.get(id).orElseThrow();
+    assertEquals(1, repo.size());
+    assertEquals(PaymentStatus.DECLINED, found.status());
+    assertEquals("2222", found.cardNumberLastFour());
+    assertEquals("EUR", found.currency());
+  }
+
+  @Test
+  void expiryYearBeyondShortRangeRoundTrips() {
+    UUID id = UUID.randomUUID();
+
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "1111", 1, 40000, "USD", 10));
+
+    assertEquals(40000, repo.get(id).orElseThrow().expiryYear());
+  }
+
+  @Test
+  void findMostRecentReturnsNewestFirst() {
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Payment payment = authorizedPayment(UUID.randomUUID());
+      payments.add(payment);
+      repo.add(payment);
+    }
+
+    List<Payment> recent = repo.findMostRecent(3);
+
+    assertEquals(List.of(payments.get(4).id(), payments.get(3).id(), payments.get(2).id()),
+        recent.stream().map(Payment::id).toList());
+  }
+
+  @Test
+  void forEachCreatedBetweenScansTimeOrderedIdsInCreationOrder() {
+    Instant start = Instant.parse("2029-06-01T00:00:00Z");
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      payments.add(authorizedPayment(new PaymentIdGenerator(
+          Clock.fixed(start.plusSeconds(i), ZoneOffset.UTC)).next()));
+    }
+    payments.reversed().forEach(repo::add);
+    repo.add(authorizedPayment(UUID.randomUUID()));
+
+    List<Payment> visited = new ArrayList<>();
+    repo.forEachCreatedBetween(start.plusSeconds(1), start.plusSeconds(4), visited::add);
+
+    assertEquals(payments.subList(1, 4).stream().map(Payment::id).toList(),
+        visited.stream().map(Payment::id).toList());
+  }
+
+  @Test
+  void forEachCreatedBetweenComparesSubMillisecondBoundsLikeInstants() {
+    Instant createdAt = Instant.parse("2029-06-01T00:00:00Z");
+    Payment payment = authorizedPayment(
+        new PaymentIdGenerator(Clock.fixed(createdAt, ZoneOffset.UTC)).next());
+    repo.add(payment);
+
+    List<Payment> after = new ArrayList<>();
+    repo.forEachCreatedBetween(createdAt.plusNanos(1), createdAt.plusSeconds(1), after::add);
+    List<Payment> upTo = new ArrayList<>();
+    repo.forEachCreatedBetween(createdAt.minusSeconds(1), createdAt.plusNanos(1), upTo::add);
+
+    assertEquals(List.of(), after);
+    assertEquals(List.of(payment.id()), upTo.stream().map(Payment::id).toList());
+  }
+
+  @Test
+  void concurrentAddsAreAllStored() throws Exception {
+    List<UUID> ids = new ArrayList<>();
+    List<Future<?>> adds = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+      for (int i = 0; i < 2_000; i++) {
+        Payment payment = authorizedPayment(UUID.randomUUID());
+        ids.add(payment.id());
+        adds.add(executor.submit(() -> repo.add(payment)));
+      }
+      for (Future<?> add : adds) {
+        add.get();
+      }
+    }
+
+    assertEquals(2_000, repo.size());
+    assertEquals(2_000, repo.getAll(ids).size());
+  }
+}
@@ -0,0 +1,218 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.infrastructure.repository.JournalPaymentsRepository.Durability;
+import com.checkout.payment.gateway.infrastructure.repository.JournalPaymentsRepository;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalPaymentsRepositoryTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void addAndGetByIdReturnsEquivalentPayment() {
+    try (JournalPaymentsRepository repo = open(16, Durability.ASYNC)) {
+      Payment expected = authorizedPayment(UUID.randomUUID());
+
+      repo.add(expected);
+
+      Payment found = repo.get(expected.id()).orElseThrow();
+      assertEquals(expected.id(), found.id());
+      assertEquals(expected.status(), found.status());
+      assertEquals(expected.cardNumberLastFour(), found.cardNumberLastFour());
+      assertEquals(expected.currency(), found.currency());
+      assertEquals(expected.amount(), found.amount());
+      assertTrue(repo.get(UUID.randomUUID()).isEmpty());
+    }
+  }
+
+  @Test
+  void whenReopenedThenIndexIsRebuiltFromSegments() {
+    Payment first = authorizedPayment(UUID.randomUUID());
+    Payment second = authorizedPayment(UUID.randomUUID());
+    try (JournalPaymentsRepository repo = open(16, Durability.SYNC)) {
+      repo.add(first);
+      repo.add(second);
+    }
+
+    try (JournalPaymentsRepository repo = open(16, Durability.SYNC)) {
+      assertEquals(2, repo.size());
+      assertEquals(first.id(), repo.get(first.id()).orElseThrow().id());
+      assertEquals(second.id(), repo.get(second.id()).orElseThrow().id());
+    }
+  }
+
+  @Test
+  void whenReopenedThenAuthorizationCodesAreIndexedAgain() {
+    UUID code = UUID.randomUUID();
+    Payment payment = authorizedPayment(UUID.randomUUID());
+    payment.processBankResponse(true, code.toString());
+    try (JournalPaymentsRepository repo = open(16, Durability.SYNC)) {
+      repo.add(payment);
+      assertEquals(payment.id(), repo.findByAuthorizationCode(code).orElseThrow().id());
+    }
+
+    try (JournalPaymentsRepository repo = open(16, Durability.SYNC)) {
+      Payment found = repo.findByAuthorizationCode(code).orElseThrow();
+      assertEquals(payment.id(), found.id());
+      assertEquals(code, found.authorizationCode());
+    }
+  }
+
+  @Test
+  void whenLegacySegmentPresentThenOpeningFails() throws Exception {
+    Files.createFile(directory.resolve("segment-0000000000.dat"));
+
+    assertThrows(IllegalStateException.class, () -> open(16, Durability.ASYNC));
+  }
+
+  @Test
+  void addAllPersistsBatchAcrossSegments() {
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      payments.add(authorizedPayment(UUID.randomUUID()));
+    }
+    try (JournalPaymentsRepository repo = open(4, Durability.SYNC)) {
+      repo.addAll(payments);
+    }
+
+    try (JournalPaymentsRepository repo = open(4, Durability.SYNC)) {
+      assertEquals(10, repo.size());
+      for (Payment payment : payments) {
+        assertTrue(repo.get(payment.id()).isPresent());
+      }
+    }
+  }
+
+  @Test
+  void findMostRecentSkipsOverwrittenRecordsAcrossSegments() {
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      payments.add(authorizedPayment(UUID.randomUUID()));
+    }
+    try (JournalPaymentsRepository repo = open(4, Durability.ASYNC)) {
+      payments.forEach(repo::add);
+      repo.add(payments.get(1));
+
+      List<Payment> recent = repo.findMostRecent(4);
+
+      assertEquals(List.of(payments.get(1).id(), payments.get(5).id(), payments.get(4).id(),
+          payments.get(3).id()), recent.stream().map(Payment::id).toList());
+    }
+  }
+
+  @Test
+  void whenSegmentIsFullThenJournalRollsToNewSegment() {
+    try (JournalPaymentsRepository repo = open(4, Durability.ASYNC)) {
+      for (int i = 0; i < 10; i++) {
+        repo.add(authorizedPayment(UUID.randomUUID()));
+      }
+
+      assertEquals(10, repo.size());
+      assertEquals(3, repo.segmentCount());
+    }
+  }
+
+  @Test
+  void whenTrailingRecordIsTornThenRecoveryStopsBeforeIt() throws Exception {
+    Payment intact = authorizedPayment(UUID.randomUUID());
+    Payment torn = authorizedPayment(UUID.randomUUID());
+    try (JournalPaymentsRepository repo = open(16, Durability.ASYNC)) {
+      repo.add(intact);
+      repo.add(torn);
+    }
+    try (FileChannel channel = FileChannel.open(directory.resolve("segment-v2-0000000000.dat"),
+        StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 56 + 16);
+    }
+
+    try (JournalPaymentsRepository repo = open(16, Durability.ASYNC)) {
+      assertEquals(1, repo.size());
+      assertTrue(repo.get(intact.id()).isPresent());
+      assertTrue(repo.get(torn.id()).isEmpty());
+
+      Payment replacement = authorizedPayment(UUID.randomUUID());
+      repo.add(replacement);
+      assertTrue(repo.get(replacement.id()).isPresent());
+    }
+  }
+
+  @Test
+  void whenSegmentIsMostlySupersededThenCompactionMovesLiveRecordsAndRemovesIt() {
+    UUID[] ids = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+    try (JournalPaymentsRepository repo = open(4, Durability.ASYNC)) {
+      for (UUID id : ids) {
+        repo.add(authorizedPayment(id));
+      }
+      for (int i = 0; i < 3; i++) {
+        repo.add(Payment.restore(ids[i], PaymentStatus.DECLINED, "3457", 12, 2030, "USD", 100));
+      }
+      assertEquals(2, repo.segmentCount());
+
+      repo.add(authorizedPayment(UUID.randomUUID()));
+      repo.add(authorizedPayment(UUID.randomUUID()));
+      assertEquals(3, repo.segmentCount());
+
+      repo.compact();
+
+      assertEquals(2, repo.segmentCount());
+      assertFalse(Files.exists(directory.resolve("segment-v2-0000000000.dat")));
+      assertEquals(6, repo.size());
+      assertEquals(PaymentStatus.DECLINED, repo.get(ids[0]).orElseThrow().status());
+      assertEquals(PaymentStatus.AUTHORIZED, repo.get(ids[3]).orElseThrow().status());
+    }
+
+    try (JournalPaymentsRepository repo = open(4, Durability.ASYNC)) {
+      assertEquals(6, repo.size());
+      assertEquals(PaymentStatus.DECLINED, repo.get(ids[0]).orElseThrow().status());
+      assertEquals(PaymentStatus.AUTHORIZED, repo.get(ids[3]).orElseThrow().status());
+    }
+  }
+
+  @Test
+  void forEachCreatedBetweenScansTimeOrderedIdsInCreationOrder() {
+    try (JournalPaymentsRepository repo = open(16, Durability.ASYNC)) {
+      Instant start = Instant.parse("2029-06-01T00:00:00Z");
+      List<Payment> payments = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        payments.add(authorizedPayment(new PaymentIdGenerator(
+            Clock.fixed(start.plusSeconds(i), ZoneOffset.UTC)).next()));
+      }
+      payments.reversed().forEach(repo::add);
+      repo.add(authorizedPayment(UUID.randomUUID()));
+
+      List<Payment> visited = new ArrayList<>();
+      repo.forEachCreatedBetween(start.plusSeconds(1), start.plusSeconds(4), visited::add);
+
+      assertEquals(payments.subList(1, 4).stream().map(Payment::id).toList(),
+          visited.stream().map(Payment::id).toList());
+    }
+  }
+
+  private JournalPaymentsRepository open(int recordsPerSegment, Durability durability) {
+    return new JournalPaymentsRepository(directory, recordsPerSegment, durability, Duration.ZERO,
+        0.5);
+  }
+}
@@ -0,0 +1,207 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.infrastructure.repository.OffHeapPaymentsRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class OffHeapPaymentsRepositoryTest {
+
+  @Test
+  void addAndGetByIdReturnsEquivalentPayment() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+    Payment expected = new Payment(id, PaymentStatus.DECLINED, "1234567890120042", 8, 2030, "GBP",
+        100);
+
+    repo.add(expected);
+
+    Payment found = repo.get(id).orElseThrow();
+    assertEquals(expected.id(), found.id());
+    assertEquals(expected.status(), found.status());
+    assertEquals("0042", found.cardNumberLastFour());
+    assertEquals(expected.expiryMonth(), found.expiryMonth());
+    assertEquals(expected.expiryYear(), found.expiryYear());
+    assertEquals(expected.currency(), found.currency());
+    assertEquals(expected.amount(), found.amount());
+  }
+
+  @Test
+  void getUnknownIdReturnsEmpty() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    repo.add(authorizedPayment(UUID.randomUUID()));
+
+    assertTrue(repo.get(UUID.randomUUID()).isEmpty());
+  }
+
+  @Test
+  void getAllReturnsOnlyStoredPayments() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    repo.add(authorizedPayment(first));
+    repo.add(authorizedPayment(second));
+
+    Map<UUID, Payment> found = repo.getAll(List.of(first, UUID.randomUUID(), second));
+
+    assertEquals(List.of(first, second), List.copyOf(found.keySet()));
+    assertEquals(first, found.get(first).id());
+  }
+
+  @Test
+  void whenLoadFactorExceededThenTableGrowsAndKeepsPayments() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(4);
+    List<UUID> ids = new ArrayList<>();
+
+    for (int i = 0; i < 10_000; i++) {
+      Payment payment = authorizedPayment(UUID.randomUUID());
+      repo.add(payment);
+      ids.add(payment.id());
+    }
+
+    assertEquals(10_000, repo.size());
+    assertTrue(repo.capacity() >= 10_000);
+    for (UUID id : ids) {
+      assertEquals(id, repo.get(id).orElseThrow().id());
+    }
+  }
+
+  @Test
+  void findByAuthorizationCodeSurvivesTableGrowth() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(4);
+    List<Payment> payments = new ArrayList<>();
+
+    for (int i = 0; i < 1_000; i++) {
+      Payment payment = authorizedPayment(UUID.randomUUID());
+      payment.processBankResponse(true, UUID.randomUUID().toString());
+      repo.add(payment);
+      payments.add(payment);
+    }
+
+    for (Payment payment : payments) {
+      Payment found = repo.findByAuthorizationCode(payment.authorizationCode()).orElseThrow();
+      assertEquals(payment.id(), found.id());
+      assertEquals(payment.authorizationCode(), found.authorizationCode());
+    }
+    assertTrue(repo.findByAuthorizationCode(UUID.randomUUID()).isEmpty());
+  }
+
+  @Test
+  void whenPaymentOverwrittenWithNewCodeThenOldCodeIsNotFound() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+    UUID oldCode = UUID.randomUUID();
+    UUID newCode = UUID.randomUUID();
+
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "1111", 1, 2030, "USD", 10,
+        oldCode.getMostSignificantBits(), oldCode.getLeastSignificantBits()));
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "1111", 1, 2030, "USD", 10,
+        newCode.getMostSignificantBits(), newCode.getLeastSignificantBits()));
+
+    assertTrue(repo.findByAuthorizationCode(oldCode).isEmpty());
+    assertEquals(id, repo.findByAuthorizationCode(newCode).orElseThrow().id());
+  }
+
+  @Test
+  void addingSameIdTwiceOverwritesRecord() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "1111", 1, 2030, "USD", 10));
+    repo.add(Payment.restore(id, PaymentStatus.DECLINED, "2222", 2, 2031, "EUR", 20));
+
+    Payment found = repo.get(id).orElseThrow();
+    assertEquals(1, repo.size());
+    assertEquals(PaymentStatus.DECLINED, found.status());
+    assertEquals("2222", found.cardNumberLastFour());
+    assertEquals("EUR", found.currency());
+  }
+
+  @Test
+  void storedPaymentWithSinceExpiredCardIsStillReturned() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "4321", 1, 2020, "USD", 10));
+
+    assertEquals(2020, repo.get(id).orElseThrow().expiryYear());
+  }
+
+  @Test
+  void largestEncodableExpiryYearRoundTrips() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "4321", 1, Short.MAX_VALUE, "USD", 10));
+
+    assertEquals(Short.MAX_VALUE, repo.get(id).orElseThrow().expiryYear());
+  }
+
+  @Test
+  void expiryYearBeyondRecordRangeIsRejectedWithoutStoringAnything() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+    Payment payment = Payment.restore(id, PaymentStatus.AUTHORIZED, "4321", 1, 40000, "USD", 10);
+
+    assertThrows(IllegalArgumentException.class, () -> repo.add(payment));
+    assertTrue(repo.get(id).isEmpty());
+    assertEquals(0, repo.size());
+  }
+
+  @Test
+  void rejectedUpdateLeavesStoredRecordIntact() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    UUID id = UUID.randomUUID();
+    repo.add(Payment.restore(id, PaymentStatus.AUTHORIZED, "4321", 1, 2030, "USD", 10));
+
+    assertThrows(IllegalArgumentException.class, () -> repo.add(
+        Payment.restore(id, PaymentStatus.DECLINED, "8765", 2, 2031, "JPY", 20)));
+
+    Payment stored = repo.get(id).orElseThrow();
+    assertEquals(PaymentStatus.AUTHORIZED, stored.status());
+    assertEquals("4321", stored.cardNumberLastFour());
+    assertEquals(10, stored.amount());
+    assertEquals(1, repo.size());
+  }
+
+  @Test
+  void unsupportedCurrencyIsRejected() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    Payment payment = Payment.restore(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "4321", 1, 2030,
+        "JPY", 10);
+
+    assertThrows(IllegalArgumentException.class, () -> repo.add(payment));
+  }
+
+  @Test
+  void forEachCreatedBetweenScansTimeOrderedIdsInCreationOrder() {
+    OffHeapPaymentsRepository repo = new OffHeapPaymentsRepository(16);
+    Instant start = Instant.parse("2029-06-01T00:00:00Z");
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      payments.add(authorizedPayment(new PaymentIdGenerator(
+          Clock.fixed(start.plusSeconds(i), ZoneOffset.UTC)).next()));
+    }
+    payments.reversed().forEach(repo::add);
+    repo.add(authorizedPayment(UUID.randomUUID()));
+
+    List<Payment> visited = new ArrayList<>();
+    repo.forEachCreatedBetween(start.plusSeconds(1), start.plusSeconds(4), visited::add);
+
+    assertEquals(payments.subList(1, 4).stream().map(Payment::id).toList(),
+        visited.stream().map(Payment::id).toList());
+  }
+}
@@ -0,0 +1,170 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.TieredPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.WriteBehindPaymentsRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TieredPaymentsRepositoryTest {
+
+  private final CountingStore store = new CountingStore();
+
+  @Test
+  void whenPaymentIsCachedThenColdTierIsNotRead() {
+    TieredPaymentsRepository repo = open(100, Duration.ofMinutes(1));
+    Payment payment = authorizedPayment(UUID.randomUUID());
+    repo.add(payment);
+
+    assertEquals(payment, repo.get(payment.id()).orElseThrow());
+    assertEquals(payment, repo.get(payment.id()).orElseThrow());
+
+    assertEquals(0, store.reads.get());
+    assertEquals(payment, store.get(payment.id()).orElseThrow());
+    assertEquals(2, repo.cache().stats().hitCount());
+  }
+
+  @Test
+  void unknownIdIsCachedAsAbsentUntilItIsAdded() {
+    TieredPaymentsRepository repo = open(100, Duration.ofMinutes(1));
+    UUID id = UUID.randomUUID();
+
+    assertTrue(repo.get(id).isEmpty());
+    assertTrue(repo.get(id).isEmpty());
+    assertEquals(1, store.reads.get());
+    assertEquals(2, repo.negativeHitCount());
+
+    Payment payment = authorizedPayment(id);
+    repo.add(payment);
+    assertEquals(payment, repo.get(id).orElseThrow());
+    assertEquals(1, store.reads.get());
+  }
+
+  @Test
+  void whenNegativeTtlPassesThenColdTierIsReadAgain() throws InterruptedException {
+    TieredPaymentsRepository repo = open(100, Duration.ofMillis(20));
+    UUID id = UUID.randomUUID();
+    repo.get(id);
+    Payment payment = authorizedPayment(id);
+    store.add(payment);
+
+    Thread.sleep(50);
+
+    assertEquals(payment, repo.get(id).orElseThrow());
+    assertEquals(2, store.reads.get());
+  }
+
+  @Test
+  void getAllReadsOnlyMissingIdsFromColdTier() {
+    TieredPaymentsRepository repo = open(100, Duration.ofMinutes(1));
+    Payment cached = authorizedPayment(UUID.randomUUID());
+    Payment stored = authorizedPayment(UUID.randomUUID());
+    UUID unknown = UUID.randomUUID();
+    repo.add(cached);
+    store.add(stored);
+
+    Map<UUID, Payment> found = repo.getAll(List.of(unknown, stored.id(), cached.id()));
+
+    assertEquals(List.of(stored.id(), cached.id()), new ArrayList<>(found.keySet()));
+    assertEquals(2, store.reads.get());
+    repo.getAll(List.of(unknown, stored.id(), cached.id()));
+    assertEquals(2, store.reads.get());
+  }
+
+  @Test
+  void sizeBoundEvictsEntries() {
+    TieredPaymentsRepository repo = open(10, Duration.ofMinutes(1));
+    for (int i = 0; i < 100; i++) {
+      repo.add(authorizedPayment(UUID.randomUUID()));
+    }
+    repo.cache().cleanUp();
+
+    assertTrue(repo.cache().estimatedSize() <= 10);
+    assertEquals(100, repo.size());
+    assertTrue(repo.cache().stats().evictionCount() >= 90);
+  }
+
+  @Test
+  void warmUpLoadsMostRecentPayments() {
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      payments.add(authorizedPayment(UUID.randomUUID()));
+    }
+    store.recent = payments;
+    TieredPaymentsRepository repo = open(100, Duration.ofMinutes(1));
+
+    assertEquals(5, repo.warmUp(5));
+
+    for (Payment payment : payments) {
+      assertEquals(payment, repo.get(payment.id()).orElseThrow());
+    }
+    assertEquals(0, store.reads.get());
+  }
+
+  @Test
+  void unwrapLooksThroughEveryDecorator() {
+    IndexedPaymentsRepository indexed = new IndexedPaymentsRepository(store);
+    TieredPaymentsRepository repo =
+        new TieredPaymentsRepository(indexed, 100, Duration.ofMinutes(1));
+
+    assertSame(repo, repo.unwrap(TieredPaymentsRepository.class).orElseThrow());
+    assertSame(indexed, repo.unwrap(IndexedPaymentsRepository.class).orElseThrow());
+    assertSame(store, repo.unwrap(InMemoryPaymentsRepository.class).orElseThrow());
+    assertTrue(repo.unwrap(WriteBehindPaymentsRepository.class).isEmpty());
+  }
+
+  @Test
+  void evictingColdTierIsRefused() {
+    BoundedInMemoryPaymentsRepository bounded =
+        new BoundedInMemoryPaymentsRepository(10, Duration.ofMinutes(1), Clock.systemUTC());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new TieredPaymentsRepository(bounded, 100, Duration.ofMinutes(1)));
+    assertThrows(IllegalArgumentException.class, () -> new TieredPaymentsRepository(
+        new IndexedPaymentsRepository(bounded), 100, Duration.ofMinutes(1)));
+  }
+
+  private TieredPaymentsRepository open(long maxSize, Duration negativeTtl) {
+    return new TieredPaymentsRepository(store, maxSize, negativeTtl);
+  }
+
+  private static final class CountingStore extends InMemoryPaymentsRepository {
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private List<Payment> recent = List.of();
+
+    @Override
+    public Optional<Payment> get(UUID id) {
+      reads.incrementAndGet();
+      return super.get(id);
+    }
+
+    @Override
+    public Map<UUID, Payment> getAll(Collection<UUID> ids) {
+      reads.addAndGet(ids.size());
+      return super.getAll(ids);
+    }
+
+    @Override
+    public List<Payment> findMostRecent(int limit) {
+      return recent.subList(0, Math.min(limit, recent.size()));
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.WriteBehindPaymentsRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindPaymentsRepositoryTest {
+
+  @Test
+  void bufferedPaymentIsReadableBeforeItIsFlushed() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    InMemoryPaymentsRepository store = new InMemoryPaymentsRepository() {
+      @Override
+      public void addAll(Collection<Payment> payments) {
+        await(release);
+        super.addAll(payments);
+      }
+    };
+    try (WriteBehindPaymentsRepository repo = open(store, 16)) {
+      UUID code = UUID.randomUUID();
+      Payment payment = authorizedPayment(UUID.randomUUID());
+      payment.processBankResponse(true, code.toString());
+
+      repo.add(payment);
+
+      assertTrue(store.get(payment.id()).isEmpty());
+      assertEquals(payment, repo.get(payment.id()).orElseThrow());
+      assertEquals(payment, repo.getAll(List.of(payment.id())).get(payment.id()));
+      assertEquals(payment, repo.findByAuthorizationCode(code).orElseThrow());
+      assertTrue(repo.lag().compareTo(Duration.ZERO) > 0);
+
+      release.countDown();
+      awaitFlushed(repo);
+      assertEquals(payment, store.get(payment.id()).orElseThrow());
+      assertEquals(Duration.ZERO, repo.lag());
+    }
+  }
+
+  @Test
+  void whenFlushFailsThenBatchIsRetried() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    InMemoryPaymentsRepository store = new InMemoryPaymentsRepository() {
+      @Override
+      public void addAll(Collection<Payment> payments) {
+        if (attempts.incrementAndGet() < 3) {
+          throw new IllegalStateException("Store unavailable");
+        }
+        super.addAll(payments);
+      }
+    };
+    try (WriteBehindPaymentsRepository repo = open(store, 16)) {
+      Payment payment = authorizedPayment(UUID.randomUUID());
+
+      repo.add(payment);
+      awaitFlushed(repo);
+
+      assertEquals(payment, store.get(payment.id()).orElseThrow());
+      assertEquals(2, repo.flushFailureCount());
+    }
+  }
+
+  @Test
+  void whenQueueIsFullThenAddFailsAfterOfferTimeout() throws Exception {
+    CountDownLatch flushing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    InMemoryPaymentsRepository store = new InMemoryPaymentsRepository() {
+      @Override
+      public void addAll(Collection<Payment> payments) {
+        flushing.countDown();
+        await(release);
+        super.addAll(payments);
+      }
+    };
+    try (WriteBehindPaymentsRepository repo = new WriteBehindPaymentsRepository(store, 1, 1,
+        Duration.ofMillis(50), Duration.ofSeconds(5))) {
+      repo.add(authorizedPayment(UUID.randomUUID()));
+      assertTrue(flushing.await(5, TimeUnit.SECONDS));
+      repo.add(authorizedPayment(UUID.randomUUID()));
+
+      Payment rejected = authorizedPayment(UUID.randomUUID());
+      assertThrows(IllegalStateException.class, () -> repo.add(rejected));
+      assertTrue(repo.get(rejected.id()).isEmpty());
+      release.countDown();
+    }
+  }
+
+  @Test
+  void closeFlushesBufferedPaymentsAndClosesStore() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    ClosableStore store = new ClosableStore(closed);
+    WriteBehindPaymentsRepository repo = open(store, 4);
+    for (int i = 0; i < 100; i++) {
+      repo.add(authorizedPayment(UUID.randomUUID()));
+    }
+
+    repo.close();
+
+    assertEquals(100, store.size());
+    assertEquals(0, repo.pendingCount());
+    assertTrue(closed.get());
+    assertThrows(IllegalStateException.class, () -> repo.add(authorizedPayment(UUID.randomUUID())));
+  }
+
+  @Test
+  void forEachCreatedBetweenMergesBufferedPaymentsIntoTheStoredOnes() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    InMemoryPaymentsRepository store = new InMemoryPaymentsRepository() {
+      @Override
+      public void addAll(Collection<Payment> payments) {
+        await(release);
+        super.addAll(payments);
+      }
+    };
+    Instant start = Instant.parse("2029-06-01T00:00:00Z");
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      payments.add(authorizedPayment(new PaymentIdGenerator(
+          Clock.fixed(start.plusSeconds(i), ZoneOffset.UTC)).next()));
+    }
+    try (WriteBehindPaymentsRepository repo = open(store, 16)) {
+      store.add(payments.get(0));
+      store.add(payments.get(2));
+      store.add(payments.get(5));
+      repo.add(payments.get(1));
+      repo.add(payments.get(4));
+      Payment buffered = authorizedPayment(payments.get(2).id());
+      repo.add(buffered);
+
+      List<Payment> visited = new ArrayList<>();
+      repo.forEachCreatedBetween(start, start.plusSeconds(6), visited::add);
+
+      assertEquals(List.of(payments.get(0).id(), payments.get(1).id(), buffered.id(),
+          payments.get(4).id(), payments.get(5).id()), visited.stream().map(Payment::id).toList());
+      assertSame(buffered, visited.get(2));
+      release.countDown();
+    }
+  }
+
+  private static WriteBehindPaymentsRepository open(InMemoryPaymentsRepository store,
+      int batchSize) {
+    return new WriteBehindPaymentsRepository(store, 1024, batchSize, Duration.ofSeconds(1),
+        Duration.ofSeconds(5));
+  }
+
+  private static void awaitFlushed(WriteBehindPaymentsRepository repo)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (repo.pendingCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(0, repo.pendingCount());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static final class ClosableStore extends InMemoryPaymentsRepository
+      implements AutoCloseable {
+
+    private final AtomicBoolean closed;
+
+    ClosableStore(AtomicBoolean closed) {
+      this.closed = closed;
+    }
+
+    @Override
+    public void close() {
+      closed.set(true);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.exception.BankServiceException;
+import com.checkout.payment.gateway.exception.CommonExceptionHandler;
+import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkPaymentServiceTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+  private final InMemoryPaymentsRepository repository = new InMemoryPaymentsRepository();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+  private final ConcurrentLinkedQueue<String> bankCalls = new ConcurrentLinkedQueue<>();
+  private BulkPaymentService bulkPaymentService;
+
+  @BeforeEach
+  void setUp() {
+    PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+    PaymentGatewayService paymentGatewayService = new PaymentGatewayService(repository,
+        request -> {
+          bankCalls.add(request.cardNumber());
+          int running = inFlight.incrementAndGet();
+          maxObservedInFlight.accumulateAndGet(running, Math::max);
+          char lastDigit = request.cardNumber().charAt(request.cardNumber().length() - 1);
+          // Later cards answer sooner, so completion order differs from input order.
+          Executor delayed = CompletableFuture.delayedExecutor(
+              60L - (request.amount() % 6) * 10, TimeUnit.MILLISECONDS);
+          return CompletableFuture.supplyAsync(() -> {
+            inFlight.decrementAndGet();
+            if (lastDigit == '0') {
+              throw new BankServiceException("Bank service is unavailable");
+            }
+            return new BankPaymentResponse((lastDigit - '0') % 2 == 1, "code");
+          }, delayed);
+        },
+        new IdempotencyCache(100, Duration.ofMinutes(5)), metrics);
+    bulkPaymentService = new BulkPaymentService(paymentGatewayService,
+        new PaymentRequestValidator(false, 100, 500), new CommonExceptionHandler(metrics),
+        objectMapper, 2);
+  }
+
+  @Test
+  void whenStreamProcessedThenOneLineIsWrittenPerRequestInInputOrder() throws IOException {
+    List<JsonNode> lines = process(
+        request("1234567890123451", 1),
+        "",
+        request("1234567890123452", 2),
+        "{not json",
+        request("1234567890123450", 3),
+        request("123", 4),
+        request("1234567890123453", 5));
+
+    assertEquals(6, lines.size());
+    assertEquals("Authorized", lines.get(0).get("status").asText());
+    assertEquals(1, lines.get(0).get("amount").asInt());
+    assertEquals("Declined", lines.get(1).get("status").asText());
+    assertEquals(2, lines.get(1).get("amount").asInt());
+    assertEquals("INVALID_JSON", lines.get(2).get("code").asText());
+    assertEquals("Payment gateway is unavailable", lines.get(3).get("message").asText());
+    assertEquals("VALIDATION_ERROR", lines.get(4).get("code").asText());
+    assertEquals("Authorized", lines.get(5).get("status").asText());
+    assertEquals(5, lines.get(5).get("amount").asInt());
+    assertEquals(3, repository.size());
+  }
+
+  @Test
+  void whenManyRequestsStreamedThenBankParallelismIsBounded() throws IOException {
+    String[] requests = new String[10];
+    for (int i = 0; i < requests.length; i++) {
+      requests[i] = request("1234567890123451", i + 1);
+    }
+
+    List<JsonNode> lines = process(requests);
+
+    assertEquals(10, lines.size());
+    assertEquals(10, bankCalls.size());
+    assertTrue(maxObservedInFlight.get() <= 2, "max in flight " + maxObservedInFlight.get());
+  }
+
+  private List<JsonNode> process(String... requests) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    bulkPaymentService.process(new ByteArrayInputStream(
+        String.join("\n", requests).getBytes(StandardCharsets.UTF_8)), out);
+
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    return lines;
+  }
+
+  private static String request(String cardNumber, int amount) {
+    return String.format("{\"cardNumber\":\"%s\",\"expiryMonth\":12,\"expiryYear\":2099,"
+        + "\"currency\":\"USD\",\"amount\":%d,\"cvv\":\"123\"}", cardNumber, amount);
+  }
+}
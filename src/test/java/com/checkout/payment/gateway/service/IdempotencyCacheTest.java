@@ -0,0 +1,117 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.dto.PostPaymentResponse;
+import com.checkout.payment.gateway.exception.IdempotencyKeyConflictException;
+import com.checkout.payment.gateway.support.MutableClock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyCacheTest {
+
+  private final IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(5));
+
+  @Test
+  void whenKeyRepeatedThenStoredResponseIsReturned() {
+    AtomicInteger calls = new AtomicInteger();
+    PostPaymentRequest request = createRequest(1500);
+
+    PostPaymentResponse first = cache.execute("key", request, () -> {
+      calls.incrementAndGet();
+      return createResponse();
+    });
+    PostPaymentResponse second = cache.execute("key", request, () -> {
+      calls.incrementAndGet();
+      return createResponse();
+    });
+
+    assertSame(first, second);
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void whenDuplicateArrivesWhileInFlightThenItSharesTheSameResult() {
+    CompletableFuture<PostPaymentResponse> bankResult = new CompletableFuture<>();
+    AtomicInteger calls = new AtomicInteger();
+    PostPaymentRequest request = createRequest(1500);
+
+    CompletableFuture<PostPaymentResponse> first = cache.executeAsync("key", request, () -> {
+      calls.incrementAndGet();
+      return bankResult;
+    });
+    CompletableFuture<PostPaymentResponse> duplicate = cache.executeAsync("key", request, () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture(createResponse());
+    });
+    assertFalse(duplicate.isDone());
+
+    PostPaymentResponse response = createResponse();
+    bankResult.complete(response);
+
+    assertSame(response, first.join());
+    assertSame(response, duplicate.join());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void whenKeyReusedWithDifferentRequestThenConflictIsRaised() {
+    cache.execute("key", createRequest(1500), IdempotencyCacheTest::createResponse);
+
+    assertThrows(IdempotencyKeyConflictException.class,
+        () -> cache.execute("key", createRequest(9999), IdempotencyCacheTest::createResponse));
+  }
+
+  @Test
+  void whenAttemptFailsThenKeyIsReleasedForRetry() {
+    PostPaymentRequest request = createRequest(1500);
+
+    CompletionException failure = assertThrows(CompletionException.class,
+        () -> cache.executeAsync("key", request,
+            () -> CompletableFuture.failedFuture(new IllegalStateException("boom"))).join());
+    assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+    PostPaymentResponse response = cache.execute("key", request,
+        IdempotencyCacheTest::createResponse);
+    assertEquals(PaymentStatus.AUTHORIZED, response.status());
+  }
+
+  @Test
+  void whenTtlElapsedThenKeyCanBeReused() {
+    MutableClock clock = new MutableClock();
+    IdempotencyCache expiring = new IdempotencyCache(100, Duration.ofMinutes(1), clock);
+    AtomicInteger calls = new AtomicInteger();
+
+    expiring.execute("key", createRequest(1500), () -> {
+      calls.incrementAndGet();
+      return createResponse();
+    });
+    clock.advance(Duration.ofMinutes(2));
+    expiring.execute("key", createRequest(9999), () -> {
+      calls.incrementAndGet();
+      return createResponse();
+    });
+
+    assertEquals(2, calls.get());
+    assertEquals(1, expiring.size());
+  }
+
+  private static PostPaymentRequest createRequest(int amount) {
+    return new PostPaymentRequest("1234567890123457", 12, 2030, "USD", amount, "123");
+  }
+
+  private static PostPaymentResponse createResponse() {
+    return new PostPaymentResponse(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "3457", 12, 2030,
+        "USD", 1500, null);
+  }
+}
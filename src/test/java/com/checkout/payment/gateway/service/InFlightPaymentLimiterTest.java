@@ -0,0 +1,59 @@
+package com.checkout.payment.gateway.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.exception.BankCallRejectedException;
+import com.checkout.payment.gateway.exception.ExpiredCardException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+class InFlightPaymentLimiterTest {
+
+  @Test
+  void whenLimitReachedThenPaymentIsRejected() {
+    InFlightPaymentLimiter limiter = new InFlightPaymentLimiter(1, Duration.ofMinutes(1));
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    limiter.submit(() -> pending);
+
+    assertThrows(BankCallRejectedException.class,
+        () -> limiter.submit(() -> CompletableFuture.completedFuture("second")));
+
+    pending.complete("first");
+    assertEquals("second",
+        limiter.submit(() -> CompletableFuture.completedFuture("second")).join());
+  }
+
+  @Test
+  void whenPaymentTimesOutThenPermitIsHeldUntilItFinishes() {
+    InFlightPaymentLimiter limiter = new InFlightPaymentLimiter(1, Duration.ofMillis(10));
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    ExecutionException failure = assertThrows(ExecutionException.class,
+        () -> limiter.submit(() -> pending).get());
+
+    assertInstanceOf(TimeoutException.class, failure.getCause());
+    assertFalse(pending.isDone());
+    assertEquals(1, limiter.inFlight());
+
+    pending.complete("late");
+    assertEquals(0, limiter.inFlight());
+  }
+
+  @Test
+  void whenPaymentFailsBeforeStartingThenPermitIsReleased() {
+    InFlightPaymentLimiter limiter = new InFlightPaymentLimiter(1, Duration.ofMinutes(1));
+
+    assertThrows(ExpiredCardException.class, () -> limiter.submit(() -> {
+      throw new ExpiredCardException("Card expiry date must be in the future");
+    }));
+
+    assertEquals(0, limiter.inFlight());
+  }
+}
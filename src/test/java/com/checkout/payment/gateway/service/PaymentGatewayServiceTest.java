@@ -1,26 +1,43 @@
 package com.checkout.payment.gateway.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentIdGenerator;
 import com.checkout.payment.gateway.domain.PaymentStatus;
 import com.checkout.payment.gateway.domain.repository.PaymentsRepository;
 import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.dto.PaymentLookupResponse;
+import com.checkout.payment.gateway.dto.PaymentSearchRequest;
+import com.checkout.payment.gateway.dto.PaymentSearchResponse;
 import com.checkout.payment.gateway.dto.PostPaymentRequest;
 import com.checkout.payment.gateway.dto.PostPaymentResponse;
 import com.checkout.payment.gateway.exception.BankServiceException;
 import com.checkout.payment.gateway.exception.ExpiredCardException;
-import com.checkout.payment.gateway.exception.PaymentNotFoundException;
-import com.checkout.payment.gateway.infrastructure.external.BankClient;
+import com.checkout.payment.gateway.infrastructure.external.AsyncBankClient;
 import com.checkout.payment.gateway.infrastructure.external.dto.BankPaymentResponse;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.IndexedPaymentsRepository;
+import com.checkout.payment.gateway.metrics.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,13 +51,15 @@ class PaymentGatewayServiceTest {
   @Mock
   private PaymentsRepository paymentsRepository;
   @Mock
-  private BankClient bankClient;
+  private AsyncBankClient asyncBankClient;
 
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
   private PaymentGatewayService service;
 
   @BeforeEach
   void setUp() {
-    service = new PaymentGatewayService(paymentsRepository, bankClient);
+    service = new PaymentGatewayService(paymentsRepository, asyncBankClient,
+        new IdempotencyCache(100, Duration.ofMinutes(5)), new PaymentMetrics(meterRegistry));
   }
 
   @Test
@@ -49,7 +68,7 @@ class PaymentGatewayServiceTest {
     Payment payment = createTestPayment(id, PaymentStatus.AUTHORIZED);
     when(paymentsRepository.get(id)).thenReturn(Optional.of(payment));
 
-    GetPaymentResponse resp = service.getPaymentById(id);
+    GetPaymentResponse resp = service.findPaymentById(id).orElseThrow();
 
     assertEquals(id, resp.id());
     assertEquals(PaymentStatus.AUTHORIZED, resp.status());
@@ -61,21 +80,19 @@ class PaymentGatewayServiceTest {
   }
 
   @Test
-  void whenPaymentMissingThenThrowsPaymentNotFoundException() {
+  void whenPaymentMissingThenFindReturnsEmpty() {
     UUID id = UUID.randomUUID();
     when(paymentsRepository.get(id)).thenReturn(Optional.empty());
 
-    assertThrows(PaymentNotFoundException.class, () -> service.getPaymentById(id));
+    assertTrue(service.findPaymentById(id).isEmpty());
   }
 
   @Test
   void whenProcessPaymentWithAuthorizedBankResponseThenReturnsAuthorizedPayment() {
     PostPaymentRequest paymentRequest = createTestPaymentRequest();
-    BankPaymentResponse bankResponse = createAuthorizedBankResponse();
-
-    when(bankClient.processPayment(any(PostPaymentRequest.class))).thenReturn(bankResponse);
+    bankAnswers(createAuthorizedBankResponse());
 
-    PostPaymentResponse response = service.processPayment(paymentRequest);
+    PostPaymentResponse response = service.processPaymentAsync(paymentRequest).join();
 
     assertEquals(PaymentStatus.AUTHORIZED, response.status());
     assertEquals("3457", response.cardNumberLastFour());
@@ -83,17 +100,17 @@ class PaymentGatewayServiceTest {
     assertEquals(paymentRequest.expiryYear(), response.expiryYear());
     assertEquals(paymentRequest.currency(), response.currency());
     assertEquals(paymentRequest.amount(), response.amount());
+    assertEquals(7, response.id().version());
+    assertEquals(PaymentIdGenerator.createdAt(response.id()), response.createdAt());
     verify(paymentsRepository).add(any(Payment.class));
   }
 
   @Test
   void whenProcessPaymentWithDeclinedBankResponseThenReturnsDeclinedPayment() {
     PostPaymentRequest paymentRequest = createTestPaymentRequest();
-    BankPaymentResponse bankResponse = createDeclinedBankResponse();
-
-    when(bankClient.processPayment(any(PostPaymentRequest.class))).thenReturn(bankResponse);
+    bankAnswers(createDeclinedBankResponse());
 
-    PostPaymentResponse response = service.processPayment(paymentRequest);
+    PostPaymentResponse response = service.processPaymentAsync(paymentRequest).join();
 
     assertEquals(PaymentStatus.DECLINED, response.status());
     assertEquals("3457", response.cardNumberLastFour());
@@ -104,17 +121,23 @@ class PaymentGatewayServiceTest {
   void whenProcessPaymentWithExpiredCardThenThrowsExpiredCardException() {
     PostPaymentRequest expiredPaymentRequest = createExpiredPaymentRequest();
 
-    assertThrows(ExpiredCardException.class, () -> service.processPayment(expiredPaymentRequest));
+    assertThrows(ExpiredCardException.class,
+        () -> service.processPaymentAsync(expiredPaymentRequest));
+    verify(asyncBankClient, never()).processPayment(any(PostPaymentRequest.class));
     verify(paymentsRepository, never()).add(any(Payment.class));
   }
 
   @Test
-  void whenProcessPaymentWithBankServiceExceptionThenThrowsBankServiceException() {
+  void whenProcessPaymentWithBankFailureThenCompletesExceptionally() {
     PostPaymentRequest paymentRequest = createTestPaymentRequest();
-    when(bankClient.processPayment(any(PostPaymentRequest.class)))
-        .thenThrow(new BankServiceException("Bank service unavailable"));
+    when(asyncBankClient.processPayment(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.failedFuture(
+            new BankServiceException("Bank service unavailable")));
 
-    assertThrows(BankServiceException.class, () -> service.processPayment(paymentRequest));
+    CompletionException exception = assertThrows(CompletionException.class,
+        () -> service.processPaymentAsync(paymentRequest).join());
+
+    assertInstanceOf(BankServiceException.class, exception.getCause());
     verify(paymentsRepository, never()).add(any(Payment.class));
   }
 
@@ -122,11 +145,10 @@ class PaymentGatewayServiceTest {
   void whenProcessPaymentThenPaymentIsStoredWithCorrectData() {
     PostPaymentRequest paymentRequest = createTestPaymentRequest();
     BankPaymentResponse bankResponse = createAuthorizedBankResponse();
-
-    when(bankClient.processPayment(any(PostPaymentRequest.class))).thenReturn(bankResponse);
+    bankAnswers(bankResponse);
     ArgumentCaptor<Payment> paymentCaptor = ArgumentCaptor.forClass(Payment.class);
 
-    service.processPayment(paymentRequest);
+    service.processPaymentAsync(paymentRequest).join();
 
     verify(paymentsRepository).add(paymentCaptor.capture());
     Payment capturedPayment = paymentCaptor.getValue();
@@ -137,6 +159,129 @@ class PaymentGatewayServiceTest {
     assertEquals(paymentRequest.expiryYear(), capturedPayment.expiryYear());
     assertEquals(paymentRequest.currency(), capturedPayment.currency());
     assertEquals(paymentRequest.amount(), capturedPayment.amount());
+    assertEquals(UUID.fromString(bankResponse.authorizationCode()),
+        capturedPayment.authorizationCode());
+  }
+
+  @Test
+  void whenBankReturnsMalformedAuthorizationCodeThenPaymentIsStoredWithoutIt() {
+    bankAnswers(new BankPaymentResponse(true, "not-a-uuid"));
+    ArgumentCaptor<Payment> paymentCaptor = ArgumentCaptor.forClass(Payment.class);
+
+    PostPaymentResponse response = service.processPaymentAsync(createTestPaymentRequest()).join();
+
+    assertEquals(PaymentStatus.AUTHORIZED, response.status());
+    verify(paymentsRepository).add(paymentCaptor.capture());
+    assertFalse(paymentCaptor.getValue().hasAuthorizationCode());
+  }
+
+  @Test
+  void whenSameIdempotencyKeyRepeatedThenBankIsCalledOnce() {
+    PostPaymentRequest paymentRequest = createTestPaymentRequest();
+    bankAnswers(createAuthorizedBankResponse());
+
+    PostPaymentResponse first = service.processPaymentAsync(paymentRequest, "order-42").join();
+    PostPaymentResponse second = service.processPaymentAsync(paymentRequest, "order-42").join();
+
+    assertEquals(first, second);
+    verify(asyncBankClient, times(1)).processPayment(any(PostPaymentRequest.class));
+    verify(paymentsRepository, times(1)).add(any(Payment.class));
+  }
+
+  @Test
+  void whenDuplicateArrivesWhileBankCallInFlightThenBothGetTheSameResponse() {
+    PostPaymentRequest paymentRequest = createTestPaymentRequest();
+    CompletableFuture<BankPaymentResponse> bankResult = new CompletableFuture<>();
+    when(asyncBankClient.processPayment(any(PostPaymentRequest.class))).thenReturn(bankResult);
+
+    CompletableFuture<PostPaymentResponse> first =
+        service.processPaymentAsync(paymentRequest, "order-42");
+    CompletableFuture<PostPaymentResponse> duplicate =
+        service.processPaymentAsync(paymentRequest, "order-42");
+    assertFalse(duplicate.isDone());
+    bankResult.complete(createAuthorizedBankResponse());
+
+    assertEquals(first.join(), duplicate.join());
+    verify(asyncBankClient, times(1)).processPayment(any(PostPaymentRequest.class));
+    verify(paymentsRepository, times(1)).add(any(Payment.class));
+  }
+
+  @Test
+  void whenIdempotentAttemptFailsThenRetryCallsBankAgain() {
+    PostPaymentRequest paymentRequest = createTestPaymentRequest();
+    when(asyncBankClient.processPayment(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.failedFuture(
+            new BankServiceException("Bank service unavailable")))
+        .thenReturn(CompletableFuture.completedFuture(createAuthorizedBankResponse()));
+
+    CompletionException failure = assertThrows(CompletionException.class,
+        () -> service.processPaymentAsync(paymentRequest, "order-42").join());
+    PostPaymentResponse retried = service.processPaymentAsync(paymentRequest, "order-42").join();
+
+    assertInstanceOf(BankServiceException.class, failure.getCause());
+    assertEquals(PaymentStatus.AUTHORIZED, retried.status());
+    verify(asyncBankClient, times(2)).processPayment(any(PostPaymentRequest.class));
+  }
+
+  @Test
+  void whenPaymentProcessedThenLatencyIsRecordedByOutcome() {
+    bankAnswers(new BankPaymentResponse(false, null));
+
+    service.processPaymentAsync(createTestPaymentRequest()).join();
+
+    assertEquals(1, meterRegistry.get("payments.process").tag("outcome", "declined").timer()
+        .count());
+    assertEquals(1, meterRegistry.get("payments.repository.operations").tag("operation", "add")
+        .timer().count());
+    assertEquals(0, meterRegistry.get("payments.process").tag("outcome", "authorized").timer()
+        .count());
+  }
+
+  @Test
+  void whenPaymentsLookedUpThenFoundAndMissingIdsAreSeparated() {
+    UUID found = UUID.randomUUID();
+    UUID missing = UUID.randomUUID();
+    when(paymentsRepository.getAll(any())).thenReturn(
+        Map.of(found, createTestPayment(found, PaymentStatus.DECLINED)));
+
+    PaymentLookupResponse response = service.lookupPayments(List.of(found, missing, found));
+
+    assertEquals(1, response.payments().size());
+    assertEquals(found, response.payments().get(0).id());
+    assertEquals(PaymentStatus.DECLINED, response.payments().get(0).status());
+    assertEquals(List.of(missing), response.missing());
+  }
+
+  @Test
+  void whenRepositoryHasNoSearchIndexesThenSearchIsEmpty() {
+    assertTrue(service.searchPayments(
+        new PaymentSearchRequest(null, null, null, null, null, null, 10)).isEmpty());
+  }
+
+  @Test
+  void whenSearchPageIsFullThenItsCursorLeadsToTheNextPage() {
+    IndexedPaymentsRepository indexed =
+        new IndexedPaymentsRepository(new InMemoryPaymentsRepository());
+    PaymentGatewayService searchable = new PaymentGatewayService(indexed, asyncBankClient,
+        new IdempotencyCache(100, Duration.ofMinutes(5)), new PaymentMetrics(meterRegistry));
+    for (int i = 0; i < 3; i++) {
+      indexed.add(createTestPayment(PaymentIdGenerator.system().next(), PaymentStatus.AUTHORIZED));
+    }
+
+    PaymentSearchResponse first = searchable.searchPayments(
+        new PaymentSearchRequest(null, null, null, null, null, null, 2)).orElseThrow();
+    PaymentSearchResponse second = searchable.searchPayments(
+        new PaymentSearchRequest(null, null, null, null, null, first.nextCursor(), 2))
+        .orElseThrow();
+
+    assertEquals(2, first.payments().size());
+    assertEquals(1, second.payments().size());
+    assertNull(second.nextCursor());
+  }
+
+  private void bankAnswers(BankPaymentResponse bankResponse) {
+    when(asyncBankClient.processPayment(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(bankResponse));
   }
 
   private PostPaymentRequest createTestPaymentRequest() {
@@ -0,0 +1,123 @@
+package com.checkout.payment.gateway.service;
+
+import static com.checkout.payment.gateway.support.TestPayments.authorizedPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import com.checkout.payment.gateway.dto.GetPaymentResponse;
+import com.checkout.payment.gateway.infrastructure.repository.BoundedInMemoryPaymentsRepository;
+import com.checkout.payment.gateway.infrastructure.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
+import com.checkout.payment.gateway.support.MutableClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PaymentResponseCacheTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void whenPaymentReadTwiceThenItIsSerializedOnce() {
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper, new InMemoryPaymentsRepository(), 10);
+    UUID id = UUID.randomUUID();
+    AtomicInteger loads = new AtomicInteger();
+
+    SerializedPayment first = cache.get(id, paymentId -> {
+      loads.incrementAndGet();
+      return Optional.of(createResponse(paymentId));
+    }).orElseThrow();
+    SerializedPayment second = cache.get(id, paymentId -> {
+      loads.incrementAndGet();
+      return Optional.of(createResponse(paymentId));
+    }).orElseThrow();
+
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+    assertTrue(new String(first.body(), StandardCharsets.UTF_8)
+        .contains("\"status\":\"Authorized\""));
+  }
+
+  @Test
+  void whenPaymentMissingThenNothingIsCached() {
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper, new InMemoryPaymentsRepository(), 10);
+
+    assertTrue(cache.get(UUID.randomUUID(), paymentId -> Optional.empty()).isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void whenCacheFullThenOldestEntryIsEvicted() {
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper, new InMemoryPaymentsRepository(), 2);
+    UUID oldest = UUID.randomUUID();
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(oldest, paymentId -> Optional.of(createResponse(paymentId)));
+    cache.get(UUID.randomUUID(), paymentId -> Optional.of(createResponse(paymentId)));
+    cache.get(UUID.randomUUID(), paymentId -> Optional.of(createResponse(paymentId)));
+    cache.get(oldest, paymentId -> {
+      loads.incrementAndGet();
+      return Optional.of(createResponse(paymentId));
+    });
+
+    assertEquals(1, loads.get());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void whenCachingDisabledThenSamePaymentKeepsItsETag() {
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper, new InMemoryPaymentsRepository(), 0);
+    UUID id = UUID.randomUUID();
+
+    String first = cache.get(id, paymentId -> Optional.of(createResponse(paymentId)))
+        .orElseThrow().etag();
+    String second = cache.get(id, paymentId -> Optional.of(createResponse(paymentId)))
+        .orElseThrow().etag();
+
+    assertEquals(first, second);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void whenBoundedRepositoryEvictsPaymentThenItsBodyIsDropped() {
+    BoundedInMemoryPaymentsRepository repository =
+        new BoundedInMemoryPaymentsRepository(1, Duration.ZERO, Clock.systemUTC());
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper, repository, 10);
+    Payment evicted = authorizedPayment(UUID.randomUUID());
+    repository.add(evicted);
+    cache.get(evicted.id(), paymentId -> Optional.of(createResponse(paymentId)));
+
+    repository.add(authorizedPayment(UUID.randomUUID()));
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void whenBoundedRepositoryExpiresPaymentThenItsBodyIsNotServed() {
+    MutableClock clock = new MutableClock();
+    BoundedInMemoryPaymentsRepository repository =
+        new BoundedInMemoryPaymentsRepository(10, Duration.ofMinutes(5), clock);
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper, repository, 10);
+    Payment payment = authorizedPayment(UUID.randomUUID());
+    repository.add(payment);
+    cache.get(payment.id(), paymentId -> Optional.of(createResponse(paymentId)));
+
+    clock.advance(Duration.ofMinutes(6));
+
+    assertTrue(cache.get(payment.id(), paymentId -> Optional.empty()).isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  private static GetPaymentResponse createResponse(UUID id) {
+    return new GetPaymentResponse(id, PaymentStatus.AUTHORIZED, "4242", 12, 2099, "USD", 1500,
+        null, null);
+  }
+}
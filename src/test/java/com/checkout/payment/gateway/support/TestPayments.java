@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.support;
+
+import com.checkout.payment.gateway.domain.Payment;
+import com.checkout.payment.gateway.domain.PaymentStatus;
+import java.util.UUID;
+
+/** Payments for tests that only care about the id. */
+public final class TestPayments {
+
+  private TestPayments() {
+  }
+
+  public static Payment authorizedPayment(UUID id) {
+    return new Payment(id, PaymentStatus.AUTHORIZED, "1234567890123457", 12, 2030, "USD", 100);
+  }
+}
@@ -0,0 +1,138 @@
+package com.checkout.payment.gateway.validation;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.checkout.payment.gateway.domain.CurrentMonth;
+import com.checkout.payment.gateway.dto.PaymentLookupRequest;
+import com.checkout.payment.gateway.dto.PaymentSearchRequest;
+import com.checkout.payment.gateway.dto.PostPaymentRequest;
+import com.checkout.payment.gateway.exception.ExpiredCardException;
+import com.checkout.payment.gateway.exception.InvalidPaymentRequestException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentRequestValidatorTest {
+
+  private static final CurrentMonth MAY_2030 =
+      new CurrentMonth(Clock.fixed(Instant.parse("2030-05-15T12:00:00Z"), ZoneOffset.UTC));
+
+  private final PaymentRequestValidator validator = new PaymentRequestValidator(false, 3, MAY_2030);
+
+  @Test
+  void whenRequestIsValidThenNothingIsThrown() {
+    assertDoesNotThrow(() -> validator.validate(
+        new PostPaymentRequest("1234567890123451", 6, 2030, "GBP", 1, "1234")));
+  }
+
+  @Test
+  void whenFieldsAreMissingThenEachRequiredMessageIsReported() {
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PostPaymentRequest(null, null, null, null, null, null)));
+
+    assertEquals("cardNumber: Card number is required, "
+        + "expiryMonth: Expiry month is required, "
+        + "expiryYear: Expiry year is required, "
+        + "currency: Currency is required, "
+        + "amount: Amount is required, "
+        + "cvv: CVV is required", ex.getMessage());
+  }
+
+  @Test
+  void whenFieldsAreMalformedThenConstraintMessagesAreReported() {
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PostPaymentRequest("12345678901234a", 13, 2030, "JPY", 0,
+            "12")));
+
+    assertEquals("cardNumber: Card number must be 14-19 digits long and contain only numeric "
+        + "characters, "
+        + "expiryMonth: Expiry month must be between 1 and 12, "
+        + "currency: Currency must be one of: USD, EUR, GBP, "
+        + "amount: Amount must be a positive integer, "
+        + "cvv: CVV must be 3-4 digits long and contain only numeric characters", ex.getMessage());
+  }
+
+  @Test
+  void whenExpiryYearHasMoreThanFourDigitsThenItIsRejected() {
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PostPaymentRequest("1234567890123451", 6, 40000, "GBP", 1,
+            "123")));
+
+    assertEquals("expiryYear: Expiry year must be at most 9999", ex.getMessage());
+  }
+
+  @Test
+  void whenCurrencyIsBlankThenBothCurrencyMessagesAreReported() {
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PostPaymentRequest("1234567890123451", 6, 2030, " ", 1,
+            "123")));
+
+    assertEquals("currency: Currency is required, "
+        + "currency: Currency must be one of: USD, EUR, GBP", ex.getMessage());
+  }
+
+  @Test
+  void whenCardExpiresThisMonthThenItIsRejectedAsExpired() {
+    assertThrows(ExpiredCardException.class, () -> validator.validate(
+        new PostPaymentRequest("1234567890123451", 5, 2030, "USD", 1, "123")));
+  }
+
+  @Test
+  void whenLuhnCheckEnabledThenOnlyValidChecksumsPass() {
+    PaymentRequestValidator luhnValidator = new PaymentRequestValidator(true, 3, MAY_2030);
+
+    assertDoesNotThrow(() -> luhnValidator.validate(
+        new PostPaymentRequest("4242424242424242", 6, 2030, "USD", 1, "123")));
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> luhnValidator.validate(
+            new PostPaymentRequest("4242424242424241", 6, 2030, "USD", 1, "123")));
+    assertEquals("cardNumber: Card number is not valid", ex.getMessage());
+  }
+
+  @Test
+  void whenLookupHasTooManyOrNoIdsThenItIsRejected() {
+    List<UUID> fourIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+        UUID.randomUUID());
+
+    assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PaymentLookupRequest(List.of())));
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PaymentLookupRequest(fourIds)));
+    assertEquals("ids: At most 3 ids can be looked up at once", ex.getMessage());
+    assertDoesNotThrow(() -> validator.validate(new PaymentLookupRequest(fourIds.subList(0, 3))));
+  }
+
+  @Test
+  void whenSearchIsValidThenNothingIsThrown() {
+    assertDoesNotThrow(() -> validator.validate(new PaymentSearchRequest("authorized", "USD",
+        "4242", "2030-01-01T00:00:00Z", "2030-02-01T00:00:00Z", "1a2b3c", 100)));
+    assertDoesNotThrow(() -> validator.validate(
+        new PaymentSearchRequest(null, null, null, null, null, null, null)));
+  }
+
+  @Test
+  void whenSearchParametersAreMalformedThenEachMessageIsReported() {
+    InvalidPaymentRequestException ex = assertThrows(InvalidPaymentRequestException.class,
+        () -> validator.validate(new PaymentSearchRequest("Pending", "JPY", "42", "yesterday",
+            null, "zz", 0)));
+
+    assertEquals("status: Status must be one of: Authorized, Declined, Rejected, "
+        + "currency: Currency must be one of: USD, EUR, GBP, "
+        + "lastFour: Last four must be exactly 4 digits, "
+        + "from: From must be an ISO-8601 instant, "
+        + "cursor: Cursor is not valid, "
+        + "limit: Limit must be between 1 and 500", ex.getMessage());
+  }
+
+  @Test
+  void whenSearchRangeIsEmptyThenItIsRejected() {
+    assertThrows(InvalidPaymentRequestException.class, () -> validator.validate(
+        new PaymentSearchRequest(null, null, null, "2030-02-01T00:00:00Z",
+            "2030-01-01T00:00:00Z", null, null)));
+  }
+}